@@ -0,0 +1,62 @@
+package com.parking.benchmarks;
+
+import com.parking.ParkingLotApplication;
+import com.parking.service.FreeSpotIndex;
+import com.parking.service.LevelOccupancyCounters;
+import com.parking.service.LotProvisioningService;
+import com.parking.web.dto.ProvisionLotRequest;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/** Starts the application on in-memory H2 and fills it with a benchmark lot. */
+final class BenchmarkApp {
+
+    private static final int SPOTS_PER_LEVEL = 10_000;
+
+    private BenchmarkApp() {
+    }
+
+    static ConfigurableApplicationContext start(String database, WebApplicationType type, String... extraArgs) {
+        // Command-line arguments outrank the ${DB_URL:...} defaults in application.yml
+        String[] args = Stream.concat(Stream.of(
+                        "--spring.datasource.url=jdbc:h2:mem:" + database
+                                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--parking.seed.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.parking=WARN"),
+                Stream.of(extraArgs)).toArray(String[]::new);
+        return new SpringApplicationBuilder(ParkingLotApplication.class).web(type).run(args);
+    }
+
+    /** Provisions a lot of {@code spots} spots on alternating small / large levels of at most 10k spots. */
+    static void provisionLot(ConfigurableApplicationContext context, int spots) {
+        List<ProvisionLotRequest.LevelSpec> levels = new ArrayList<>();
+        int levelCount = Math.max(2, (spots + SPOTS_PER_LEVEL - 1) / SPOTS_PER_LEVEL);
+        for (int l = 0; l < levelCount; l++) {
+            int levelSpots = spots / levelCount + (l < spots % levelCount ? 1 : 0);
+            levels.add(new ProvisionLotRequest.LevelSpec(l + 1, l % 2 == 0, levelSpots));
+        }
+        ProvisionLotRequest request = new ProvisionLotRequest();
+        request.setName("Benchmark Lot " + spots);
+        request.setLevels(levels);
+        context.getBean(LotProvisioningService.class).provision(request);
+    }
+
+    /** Marks every other spot occupied in bulk, then reloads the in-memory index and counters. */
+    static void occupyHalf(ConfigurableApplicationContext context) {
+        context.getBean(JdbcTemplate.class)
+                .update("UPDATE parking_spots SET is_occupied = true WHERE MOD(spot_number, 2) = 0");
+        context.getBean(FreeSpotIndex.class).rebuild();
+        context.getBean(LevelOccupancyCounters.class).reconcile();
+    }
+}
@@ -0,0 +1,166 @@
+package com.parking.benchmarks;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.*;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.annotations.Level;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Insert cost of IDENTITY against pooled-sequence ids (allocationSize 50), with the application's
+ * batch_size / order_inserts settings. {@code seed} persists a whole lot's spots in one transaction, as
+ * provisioning does; {@code write} persists one row per transaction, as a park does. Runs on in-memory H2
+ * by default; pass {@code -p url=jdbc:postgresql://host/db -p user=... -p password=...} to measure against
+ * PostgreSQL, where the per-statement round-trips that IDENTITY cannot batch away are much more expensive.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGenerationBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+
+    @Param({"IDENTITY", "SEQUENCE"})
+    public String ids;
+
+    @Param("jdbc:h2:mem:ids;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+    public String url;
+
+    @Param("sa")
+    public String user;
+
+    @Param("")
+    public String password;
+
+    private HikariDataSource dataSource;
+    private SessionFactory sessionFactory;
+    private IntFunction<Object> newSpot;
+    private String table;
+
+    /** Lot size for {@code seed}; {@code write} does not vary with it. */
+    @State(Scope.Benchmark)
+    public static class Lot {
+        @Param({"300", "10000"})
+        public int spots;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(user);
+        dataSource.setPassword(password);
+
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(IdentitySpot.class)
+                .addAnnotatedClass(SequenceSpot.class)
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(BATCH_SIZE))
+                .setProperty(AvailableSettings.ORDER_INSERTS, "true");
+        configuration.getProperties().put(AvailableSettings.DATASOURCE, dataSource);
+        sessionFactory = configuration.buildSessionFactory();
+
+        boolean identity = ids.equals("IDENTITY");
+        newSpot = identity ? IdentitySpot::new : SequenceSpot::new;
+        table = identity ? "id_bench_identity_spots" : "id_bench_sequence_spots";
+    }
+
+    @TearDown(Level.Iteration)
+    public void clear() {
+        sessionFactory.inTransaction(session ->
+                session.createNativeMutationQuery("DELETE FROM " + table).executeUpdate());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+        dataSource.close();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void seed(Lot lot) {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (int i = 0; i < lot.spots; i++) {
+                session.persist(newSpot.apply(i + 1));
+            }
+            session.getTransaction().commit();
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void write() {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            session.persist(newSpot.apply(1));
+            session.getTransaction().commit();
+        }
+    }
+
+    // ─── Entities ────────────────────────────────────────────────────────────────
+
+    /** Columns of a parking_spots row; the two subclasses differ only in how the id is generated. */
+    @MappedSuperclass
+    public abstract static class SpotRow {
+
+        @Column(nullable = false)
+        private int spotNumber;
+
+        @Column(nullable = false)
+        private boolean isSmallCarSpot;
+
+        @Column(nullable = false)
+        private boolean isOccupied;
+
+        protected SpotRow() {
+        }
+
+        protected SpotRow(int spotNumber) {
+            this.spotNumber = spotNumber;
+            this.isSmallCarSpot = spotNumber % 2 == 0;
+        }
+    }
+
+    @Entity
+    @Table(name = "id_bench_identity_spots")
+    public static class IdentitySpot extends SpotRow {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        protected IdentitySpot() {
+        }
+
+        IdentitySpot(int spotNumber) {
+            super(spotNumber);
+        }
+    }
+
+    @Entity
+    @Table(name = "id_bench_sequence_spots")
+    public static class SequenceSpot extends SpotRow {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "id_bench_spots_seq")
+        @SequenceGenerator(name = "id_bench_spots_seq", sequenceName = "id_bench_spots_seq", allocationSize = 50)
+        private Long id;
+
+        protected SequenceSpot() {
+        }
+
+        SequenceSpot(int spotNumber) {
+            super(spotNumber);
+        }
+    }
+}
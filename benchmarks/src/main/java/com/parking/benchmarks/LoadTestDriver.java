@@ -0,0 +1,163 @@
+package com.parking.benchmarks;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load test comparing platform-thread and virtual-thread request handling.
+ * For each mode the application is started on a random port against in-memory H2, and {@code clients}
+ * concurrent gate clients repeatedly park, quote and leave their own car for {@code seconds}.
+ * Throughput and latency percentiles for both modes are printed and written as JSON.
+ *
+ * <p>Tuning (system properties): load.clients (400), load.seconds (20), load.spots (10000),
+ * load.tomcatThreads (200), load.dbPool (10), load.result (target/load-result.json).
+ */
+public class LoadTestDriver {
+
+    private static final String PARK_BODY =
+            "{\"licensePlate\":\"%s\",\"make\":\"Load\",\"model\":\"Test\",\"carType\":\"SMALL\"}";
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("load.clients", 400);
+        int seconds = Integer.getInteger("load.seconds", 20);
+        int spots = Integer.getInteger("load.spots", 10_000);
+        int tomcatThreads = Integer.getInteger("load.tomcatThreads", 200);
+        int dbPool = Integer.getInteger("load.dbPool", 10);
+        Path resultFile = Path.of(System.getProperty("load.result", "target/load-result.json"));
+
+        List<String> results = new ArrayList<>();
+        for (boolean virtual : new boolean[] {false, true}) {
+            ConfigurableApplicationContext context = BenchmarkApp.start("load-" + virtual, WebApplicationType.SERVLET,
+                    "--server.port=0",
+                    "--spring.threads.virtual.enabled=" + virtual,
+                    "--server.tomcat.threads.max=" + tomcatThreads,
+                    "--spring.datasource.hikari.maximum-pool-size=" + dbPool);
+            try {
+                BenchmarkApp.provisionLot(context, spots);
+                int port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+                Result result = run(URI.create("http://localhost:" + port), clients, Duration.ofSeconds(seconds));
+                String json = result.toJson(virtual ? "virtual" : "platform", clients, spots, tomcatThreads, dbPool);
+                System.out.println(json);
+                results.add(json);
+            } finally {
+                context.close();
+            }
+        }
+
+        Files.createDirectories(resultFile.toAbsolutePath().getParent());
+        Files.writeString(resultFile, "[\n" + String.join(",\n", results) + "\n]\n");
+        System.out.println("Load test result is saved to " + resultFile.toAbsolutePath());
+    }
+
+    private static Result run(URI base, int clients, Duration duration) throws Exception {
+        HttpClient http = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        // Client threads are virtual so the driver itself never runs out of threads
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Result>> futures = new ArrayList<>(clients);
+            for (int c = 0; c < clients; c++) {
+                String plate = "LOAD-" + c;
+                futures.add(pool.submit(() -> gateClient(http, base, plate, deadline)));
+            }
+            Result total = new Result();
+            for (Future<Result> future : futures) {
+                total.merge(future.get());
+            }
+            total.elapsedNanos = duration.toNanos();
+            return total;
+        }
+    }
+
+    private static Result gateClient(HttpClient http, URI base, String plate, long deadline) {
+        Result result = new Result();
+        while (System.nanoTime() < deadline) {
+            send(http, HttpRequest.newBuilder(base.resolve("/api/park"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(String.format(PARK_BODY, plate)))
+                    .build(), result);
+            send(http, HttpRequest.newBuilder(base.resolve("/api/spots/quote/" + plate)).GET().build(), result);
+            send(http, HttpRequest.newBuilder(base.resolve("/api/leave/" + plate))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build(), result);
+        }
+        return result;
+    }
+
+    private static void send(HttpClient http, HttpRequest request, Result result) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+            result.record(System.nanoTime() - start, response.statusCode() < 400);
+        } catch (IOException e) {
+            result.record(System.nanoTime() - start, false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ─── Types ───────────────────────────────────────────────────────────────────
+
+    private static final class Result {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+        private long elapsedNanos;
+
+        private void record(long nanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!ok) errors++;
+        }
+
+        private void merge(Result other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, Math.max(count + other.count, latencies.length * 2));
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            errors += other.errors;
+        }
+
+        private double percentileMillis(long[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+
+        private String toJson(String mode, int clients, int spots, int tomcatThreads, int dbPool) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            double throughput = count / (elapsedNanos / 1_000_000_000.0);
+            return String.format(Locale.ROOT,
+                    "  {\"mode\": \"%s\", \"clients\": %d, \"spots\": %d, \"tomcatThreads\": %d, \"dbPool\": %d, "
+                            + "\"requests\": %d, \"errors\": %d, \"throughputPerSec\": %.1f, "
+                            + "\"p50Ms\": %.2f, \"p95Ms\": %.2f, \"p99Ms\": %.2f, \"p999Ms\": %.2f, \"maxMs\": %.2f}",
+                    mode, clients, spots, tomcatThreads, dbPool, count, errors, throughput,
+                    percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.95), percentileMillis(sorted, 0.99),
+                    percentileMillis(sorted, 0.999), percentileMillis(sorted, 1.0));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.parking.benchmarks;
+
+import com.parking.repository.LevelRepository;
+import com.parking.service.CarLookupCache;
+import com.parking.service.ILeaveService;
+import com.parking.service.IParkService;
+import com.parking.web.SpotAvailabilityController;
+import com.parking.web.dto.ParkRequest;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end park, leave, quote and availability paths through the real Spring services,
+ * against an in-memory H2 database (PostgreSQL mode) holding a lot of 300 to 100k spots, half occupied.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ParkingPathsBenchmark {
+
+    private static final int MAX_CAR_POOL = 256;
+
+    @Param({"300", "10000", "100000"})
+    public int spots;
+
+    private ConfigurableApplicationContext context;
+    private IParkService parkService;
+    private ILeaveService leaveService;
+    private CarLookupCache carLookupCache;
+    private LevelRepository levelRepository;
+    private SpotAvailabilityController spotController;
+
+    private int carPool;
+    private int nextCar;
+    private int nextQuote;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApp.start("parking-" + spots, WebApplicationType.NONE);
+
+        parkService = context.getBean(IParkService.class);
+        leaveService = context.getBean(ILeaveService.class);
+        carLookupCache = context.getBean(CarLookupCache.class);
+        levelRepository = context.getBean(LevelRepository.class);
+        spotController = context.getBean(SpotAvailabilityController.class);
+
+        BenchmarkApp.provisionLot(context, spots);
+        BenchmarkApp.occupyHalf(context);
+
+        // Parked cars the quote benchmarks look up; an eighth of the lot stays well inside the free small spots
+        carPool = Math.min(MAX_CAR_POOL, spots / 8);
+        for (int i = 0; i < carPool; i++) {
+            parkService.park(request("Q-" + i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean parkAndLeave() {
+        String plate = "B-" + (nextCar++ % carPool);
+        parkService.park(request(plate));
+        return leaveService.leave(plate);
+    }
+
+    @Benchmark
+    public Object quoteCached() {
+        return spotController.getQuote(quotePlate()).getBody();
+    }
+
+    @Benchmark
+    public Object quoteUncached() {
+        String plate = quotePlate();
+        carLookupCache.invalidate(plate);
+        return spotController.getQuote(plate).getBody();
+    }
+
+    @Benchmark
+    public Object availabilityFromCounters() {
+        return spotController.getAvailability().getBody();
+    }
+
+    @Benchmark
+    public Object availabilityFromSql() {
+        return levelRepository.findLevelOccupancy();
+    }
+
+    // ─── Setup Helpers ───────────────────────────────────────────────────────────
+
+    private String quotePlate() {
+        return "Q-" + (nextQuote++ % carPool);
+    }
+
+    private static ParkRequest request(String plate) {
+        ParkRequest request = new ParkRequest();
+        request.setLicensePlate(plate);
+        request.setMake("Bench");
+        request.setModel("Mark");
+        request.setCarType(ParkRequest.CarType.SMALL);
+        return request;
+    }
+}
@@ -0,0 +1,118 @@
+package com.parking.benchmarks;
+
+import com.parking.repository.ParkingLotRepository;
+import com.parking.repository.ParkingSpotRepository;
+import com.parking.repository.SpotStateView;
+import com.parking.service.FreeSpotIndex;
+import com.parking.service.LotOwnership;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocator in isolation: the FreeSpotIndex over lots of 300 to 100k spots, with no database behind it.
+ * Each operation parks one car in the lowest free spot and releases the longest-parked one, so the
+ * occupancy level stays constant while free gaps move through the bitmap as they would in a real lot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpotAllocationBenchmark {
+
+    private static final int SPOTS_PER_LEVEL = 10_000;
+
+    @Param({"300", "10000", "100000"})
+    public int spots;
+
+    @Param({"0.5", "0.95"})
+    public double occupancy;
+
+    private FreeSpotIndex index;
+    private final ArrayDeque<FreeSpotIndex.SpotRef> parked = new ArrayDeque<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<SpotStateView> states = new ArrayList<>(spots);
+        Random random = new Random(42);
+        for (int i = 0; i < spots; i++) {
+            long levelId = i / SPOTS_PER_LEVEL + 1;
+            int spotNumber = i % SPOTS_PER_LEVEL + 1;
+            states.add(new SpotState((long) i + 1, spotNumber, true, random.nextDouble() < occupancy, levelId, 1L));
+        }
+
+        index = new FreeSpotIndex(spotRepository(states), lotRepository(), new LotOwnership(0, "", 1));
+        index.rebuild();
+
+        // Pre-occupied spots leave in random order, interleaved with the cars parked during the run
+        List<FreeSpotIndex.SpotRef> occupied = new ArrayList<>();
+        for (SpotStateView s : states) {
+            if (s.getOccupied()) {
+                occupied.add(new FreeSpotIndex.SpotRef(s.getSpotId(), s.getSpotNumber(), s.getLevelId(), 1L, true));
+            }
+        }
+        Collections.shuffle(occupied, random);
+        parked.addAll(occupied);
+    }
+
+    @Benchmark
+    public FreeSpotIndex.SpotRef parkAndRelease() {
+        FreeSpotIndex.SpotRef ref = index.claim(true).orElse(null);
+        if (ref != null) {
+            parked.addLast(ref);
+        }
+        FreeSpotIndex.SpotRef leaving = parked.pollFirst();
+        if (leaving != null) {
+            index.release(leaving.levelId(), leaving.spotId());
+        }
+        return ref;
+    }
+
+    @Benchmark
+    public FreeSpotIndex.SpotRef peek() {
+        return index.peek(true).orElse(null);
+    }
+
+    // ─── Stubs ───────────────────────────────────────────────────────────────────
+
+    /** Only findAllSpotStates is used by FreeSpotIndex.rebuild(); anything else is a benchmark bug. */
+    private static ParkingSpotRepository spotRepository(List<SpotStateView> states) {
+        return (ParkingSpotRepository) Proxy.newProxyInstance(
+                ParkingSpotRepository.class.getClassLoader(),
+                new Class<?>[] {ParkingSpotRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findAllSpotStates")) return states;
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /** The benchmark's single lot, for FreeSpotIndex.rebuild(). */
+    private static ParkingLotRepository lotRepository() {
+        return (ParkingLotRepository) Proxy.newProxyInstance(
+                ParkingLotRepository.class.getClassLoader(),
+                new Class<?>[] {ParkingLotRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findAllIds")) return List.of(1L);
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private record SpotState(Long spotId, Integer spotNumber, Boolean smallCarSpot, Boolean occupied,
+                             Long levelId, Long parkingLotId) implements SpotStateView {
+        public Long getSpotId() { return spotId; }
+        public Integer getSpotNumber() { return spotNumber; }
+        public Boolean getSmallCarSpot() { return smallCarSpot; }
+        public Boolean getOccupied() { return occupied; }
+        public Boolean getReserved() { return false; }
+        public Long getLevelId() { return levelId; }
+        public Long getParkingLotId() { return parkingLotId; }
+    }
+}
@@ -11,6 +11,12 @@ interface Availability {
   largeCar: LevelAvailability
 }
 
+interface SpotDelta {
+  smallCarSpot: boolean
+  typeAvailable: number
+  typeTotal: number
+}
+
 export function useAvailability(intervalMs = 5000) {
   const [data, setData] = useState<Availability | null>(null)
   const [error, setError] = useState(false)
@@ -23,8 +29,28 @@ export function useAvailability(intervalMs = 5000) {
 
   useEffect(() => {
     fetchNow()
-    const id = setInterval(fetchNow, intervalMs)
-    return () => clearInterval(id)
+
+    // Prefer pushed deltas; fall back to polling while the stream is unavailable
+    let pollId: ReturnType<typeof setInterval> | null = null
+    const startPolling = () => { if (!pollId) pollId = setInterval(fetchNow, intervalMs) }
+    const stopPolling = () => { if (pollId) { clearInterval(pollId); pollId = null } }
+
+    if (typeof EventSource === 'undefined') {
+      startPolling()
+      return stopPolling
+    }
+
+    const source = new EventSource('/api/spots/stream')
+    source.onopen = () => { stopPolling(); fetchNow() }
+    source.onerror = () => startPolling()
+    source.addEventListener('resync', () => fetchNow())
+    source.addEventListener('spot', e => {
+      const delta = JSON.parse((e as MessageEvent).data) as SpotDelta
+      const key = delta.smallCarSpot ? 'smallCar' : 'largeCar'
+      setData(prev => prev && { ...prev, [key]: { available: delta.typeAvailable, total: delta.typeTotal } })
+    })
+
+    return () => { source.close(); stopPolling() }
   }, [fetchNow, intervalMs])
 
   return { data, error, refetch: fetchNow }
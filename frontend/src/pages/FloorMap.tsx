@@ -26,9 +26,11 @@ export default function FloorMap() {
   const [spots, setSpots] = useState<Spot[]>([])
   const [previewSpotId, setPreviewSpotId] = useState<number | null>(null)
   const [previewSpotNumber, setPreviewSpotNumber] = useState<number | null>(null)
+  const [holdToken, setHoldToken] = useState<string | null>(null)
   const [loading, setLoading] = useState(true)
   const [error, setError] = useState(false)
   const [showConfirm, setShowConfirm] = useState(false)
+  const [holding, setHolding] = useState(false)
   const [confirming, setConfirming] = useState(false)
   const [apiError, setApiError] = useState('')
 
@@ -48,6 +50,36 @@ export default function FloorMap() {
       .finally(() => setLoading(false))
   }, [isSmall])
 
+  // The spot is only held once the driver commits; a plain page view never claims one
+  async function handleParkNow() {
+    setApiError('')
+    setHolding(true)
+    try {
+      const res = await api.post<{ spotId: number; spotNumber: number; holdToken: string }>(
+        `/spots/hold?small=${isSmall}`,
+      )
+      setPreviewSpotId(res.data.spotId)
+      setPreviewSpotNumber(res.data.spotNumber)
+      setHoldToken(res.data.holdToken)
+      setShowConfirm(true)
+    } catch (err: unknown) {
+      const msg =
+        (err as { response?: { data?: { message?: string } } })
+          ?.response?.data?.message ?? 'Something went wrong. Please try again.'
+      setApiError(msg)
+    } finally {
+      setHolding(false)
+    }
+  }
+
+  function handleCancel() {
+    if (holdToken) {
+      api.delete(`/spots/hold/${holdToken}`).catch(() => {})
+      setHoldToken(null)
+    }
+    setShowConfirm(false)
+  }
+
   async function handleConfirmPark() {
     if (!state) return
     setApiError('')
@@ -58,13 +90,16 @@ export default function FloorMap() {
         make: state.make,
         model: state.model,
         carType: state.carType,
+        holdToken,
       })
+      setHoldToken(null)
       navigate('/')
     } catch (err: unknown) {
       const msg =
         (err as { response?: { data?: { message?: string } } })
           ?.response?.data?.message ?? 'Something went wrong. Please try again.'
       setApiError(msg)
+      setHoldToken(null)
       setShowConfirm(false)
     } finally {
       setConfirming(false)
@@ -111,7 +146,7 @@ export default function FloorMap() {
             {/* Buttons */}
             <div className="flex gap-3">
               <button
-                onClick={() => setShowConfirm(false)}
+                onClick={handleCancel}
                 disabled={confirming}
                 className="flex-1 py-2.5 rounded-xl border border-gray-600 text-gray-300 hover:border-gray-400 hover:text-white text-sm font-medium transition-all disabled:opacity-50"
               >
@@ -213,10 +248,11 @@ export default function FloorMap() {
         {/* Confirm button */}
         {!loading && !error && (
           <button
-            onClick={() => setShowConfirm(true)}
-            className="px-12 py-3 bg-blue-600 hover:bg-blue-500 rounded-xl font-bold text-base transition-all active:scale-95"
+            onClick={handleParkNow}
+            disabled={holding}
+            className="px-12 py-3 bg-blue-600 hover:bg-blue-500 rounded-xl font-bold text-base transition-all active:scale-95 disabled:opacity-50"
           >
-            Park Now
+            {holding ? 'Holding spot…' : 'Park Now'}
           </button>
         )}
 
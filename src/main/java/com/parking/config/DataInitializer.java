@@ -3,8 +3,12 @@ package com.parking.config;
 import com.parking.entity.*;
 import com.parking.repository.AdminRepository;
 import com.parking.repository.ParkingLotRepository;
+import com.parking.service.LotProvisioningService;
+import com.parking.service.RevenueRollupService;
+import com.parking.web.dto.ProvisionLotRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -12,20 +16,34 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class DataInitializer implements ApplicationRunner {
 
+    private static final String SEED_LOT_NAME = "ParkSmart Main Lot";
+
     private final ParkingLotRepository parkingLotRepository;
     private final AdminRepository adminRepository;
     private final JdbcTemplate jdbcTemplate;
+    private final LotProvisioningService lotProvisioningService;
+    private final RevenueRollupService revenueRollupService;
+
+    @Value("${parking.seed.enabled:true}")
+    private boolean seedEnabled;
 
     @Override
     public void run(ApplicationArguments args) {
         migrateEnumColumns();   // commits immediately in its own transaction
+        createPartialIndexes(); // indexes JPA @Index mappings cannot express
+        uniqueTransactionIds(); // legacy millisecond ids could collide
         backfillParkedSince();  // fix parked cars with no timestamp
-        seedData();             // separate transaction for JPA operations
+        backfillRevenueRollups(); // payments made before rollups existed
+        if (seedEnabled) {
+            seedData();         // separate transaction for JPA operations
+        }
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
@@ -43,6 +61,18 @@ public class DataInitializer implements ApplicationRunner {
         }
     }
 
+    public void backfillRevenueRollups() {
+        try {
+            jdbcTemplate.execute(
+                "CREATE TABLE IF NOT EXISTS data_migrations (" +
+                "name VARCHAR(100) PRIMARY KEY, applied_at TIMESTAMP NOT NULL DEFAULT NOW())"
+            );
+            revenueRollupService.backfillOnce();
+        } catch (Exception e) {
+            log.debug("[DataInitializer] Revenue rollup backfill skipped: {}", e.getMessage());
+        }
+    }
+
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void migrateEnumColumns() {
         try {
@@ -63,6 +93,47 @@ public class DataInitializer implements ApplicationRunner {
         }
     }
 
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void createPartialIndexes() {
+        String[] statements = {
+            // Superseded by the partial index below; ddl-auto=update never drops indexes on its own
+            "DROP INDEX IF EXISTS idx_spots_type_occupied_number",
+            "CREATE INDEX IF NOT EXISTS idx_spots_free_by_type ON parking_spots (is_small_car_spot, spot_number) " +
+            "WHERE is_occupied = false",
+            "CREATE INDEX IF NOT EXISTS idx_spots_reserved ON parking_spots (reservation_token) " +
+            "WHERE reservation_token IS NOT NULL"
+        };
+        for (String statement : statements) {
+            try {
+                jdbcTemplate.execute(statement);
+            } catch (Exception e) {
+                log.debug("[DataInitializer] Partial index skipped: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void uniqueTransactionIds() {
+        try {
+            Boolean unique = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(bool_or(i.indisunique), false) FROM pg_index i " +
+                "JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = 'idx_card_payments_transaction'",
+                Boolean.class);
+            if (Boolean.TRUE.equals(unique)) return;
+
+            // Keep the oldest payment's id and suffix later duplicates with their row id
+            int rekeyed = jdbcTemplate.update(
+                "UPDATE card_payments c SET transaction_id = c.transaction_id || '-' || c.id " +
+                "WHERE EXISTS (SELECT 1 FROM card_payments d WHERE d.transaction_id = c.transaction_id AND d.id < c.id)"
+            );
+            jdbcTemplate.execute("DROP INDEX IF EXISTS idx_card_payments_transaction");
+            jdbcTemplate.execute("CREATE UNIQUE INDEX idx_card_payments_transaction ON card_payments (transaction_id)");
+            log.info("[DataInitializer] Made card_payments.transaction_id unique ({} duplicate(s) re-keyed).", rekeyed);
+        } catch (Exception e) {
+            log.debug("[DataInitializer] Unique transaction id index skipped: {}", e.getMessage());
+        }
+    }
+
     @Transactional
     public void seedData() {
         seedParkingLot();
@@ -71,46 +142,19 @@ public class DataInitializer implements ApplicationRunner {
 
     // ── Parking Lot ───────────────────────────────────────────────────────────────
     private void seedParkingLot() {
-        if (parkingLotRepository.existsByName("ParkSmart Main Lot")) {
+        if (parkingLotRepository.existsByName(SEED_LOT_NAME)) {
             log.info("[DataInitializer] Parking lot already seeded – skipping.");
             return;
         }
 
-        ParkingLot lot = new ParkingLot();
-        lot.setName("ParkSmart Main Lot");
-        lot.setLocation("123 Main Street");
-
-        // Level 1 – Small cars (10 spots)
-        Level level1 = buildLevel(1, true, 200, lot);
-
-        // Level 2 – Large cars (10 spots)
-        Level level2 = buildLevel(2, false, 100, lot);
-
-        lot.addLevel(level1);
-        lot.addLevel(level2);
-
-        parkingLotRepository.save(lot);
-        log.info("[DataInitializer] Seeded parking lot '{}' with 2 levels (300 spots total).",
-                lot.getName());
-    }
-
-    private Level buildLevel(int levelNumber, boolean isSmallCarLevel,
-                             int spotCount, ParkingLot lot) {
-        Level level = new Level();
-        level.setLevelNumber(levelNumber);
-        level.setSmallCarLevel(isSmallCarLevel);
-        level.setTotalSpots(spotCount);
-        level.setAvailableSpots(spotCount);
-        level.setParkingLot(lot);
-
-        for (int i = 1; i <= spotCount; i++) {
-            ParkingSpot spot = new ParkingSpot();
-            spot.setSpotNumber(i);
-            spot.setSmallCarSpot(isSmallCarLevel);
-            spot.setOccupied(false);
-            level.addParkingSpot(spot);
-        }
-        return level;
+        ProvisionLotRequest request = new ProvisionLotRequest();
+        request.setName(SEED_LOT_NAME);
+        request.setLocation("123 Main Street");
+        request.setLevels(List.of(
+                new ProvisionLotRequest.LevelSpec(1, true, 200),   // Level 1 – Small cars
+                new ProvisionLotRequest.LevelSpec(2, false, 100)   // Level 2 – Large cars
+        ));
+        lotProvisioningService.provision(request);
     }
 
     // ── Default Admin ─────────────────────────────────────────────────────────────
@@ -0,0 +1,46 @@
+package com.parking.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the pooled id sequences past rows created while ids still came from IDENTITY columns.
+ * Runs once every singleton (and so the schema) is ready but before the web server, the schedulers and the
+ * ApplicationRunners start, so no insert can draw an id block that overlaps existing primary keys.
+ */
+@Slf4j
+@Component
+public class IdSequenceAligner implements SmartInitializingSingleton {
+
+    // Tables whose ids come from pooled sequences (allocationSize = 50), see the entity mappings
+    private static final String[] SEQUENCE_TABLES = {
+        "parking_lots", "levels", "parking_spots", "cars",
+        "cash_payments", "card_payments", "inspection_records"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceAligner(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (String table : SEQUENCE_TABLES) {
+            String sequence = table + "_seq";
+            try {
+                Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+                Long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM " + sequence, Long.class);
+                // Only ever move forward: other instances may already hold blocks below last_value
+                if (maxId != null && lastValue != null && maxId > lastValue) {
+                    jdbcTemplate.queryForObject("SELECT setval('" + sequence + "', ?)", Long.class, maxId);
+                    log.info("[IdSequenceAligner] Advanced {} to {}.", sequence, maxId);
+                }
+            } catch (Exception e) {
+                log.debug("[IdSequenceAligner] {} alignment skipped: {}", sequence, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.parking.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the application's own worker pools, following the same switch Spring Boot uses for Tomcat
+ * and its task executors ({@code spring.threads.virtual.enabled}). In virtual mode every task gets
+ * its own virtual thread and the pool size is ignored; otherwise a fixed pool of daemon platform
+ * threads is used.
+ */
+@Slf4j
+@Component
+public class ParkingExecutors {
+
+    private final boolean virtualThreads;
+
+    public ParkingExecutors(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+        log.info("[ParkingExecutors] Worker pools use {} threads.", virtualThreads ? "virtual" : "platform");
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /** A pool for blocking work (I/O, JDBC) named {@code name-N}. */
+    public ExecutorService newWorkerPool(String name, int platformThreads) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 1).factory());
+        }
+        return Executors.newFixedThreadPool(platformThreads, daemonThreads(name));
+    }
+
+    /**
+     * One virtual thread per task whatever the mode, for work that can block on a remote peer for as long
+     * as the peer likes (e.g. a socket write to a stalled client) and so must not occupy a pooled thread.
+     */
+    public ExecutorService newPerTaskPool(String name) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 1).factory());
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
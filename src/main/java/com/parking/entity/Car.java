@@ -8,7 +8,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "cars")
+@Table(name = "cars", indexes = {
+        @Index(name = "idx_cars_license_plate", columnList = "license_plate"),
+        @Index(name = "idx_cars_parking_spot", columnList = "parking_spot_id")
+})
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "car_type", discriminatorType = DiscriminatorType.STRING)
 @Data
@@ -17,7 +20,8 @@ import java.time.LocalDateTime;
 public abstract class Car {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cars_seq")
+    @SequenceGenerator(name = "cars_seq", sequenceName = "cars_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -46,4 +50,21 @@ public abstract class Car {
     public abstract boolean park(ParkingSpot spot);
 
     public abstract boolean leave();
+
+    /** Whether this car is allowed to use the given type of spot. */
+    protected abstract boolean fits(ParkingSpot spot);
+
+    /**
+     * Binds this car to a spot whose row was already claimed atomically in the database,
+     * so unlike {@link #park(ParkingSpot)} the spot is expected to be occupied.
+     */
+    public boolean parkInClaimedSpot(ParkingSpot spot) {
+        if (spot == null || !spot.isOccupied() || !fits(spot)) {
+            return false;
+        }
+        this.parkingSpot = spot;
+        this.isParked = true;
+        this.parkedSince = LocalDateTime.now();
+        return true;
+    }
 }
@@ -8,17 +8,22 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "card_payments")
+@Table(name = "card_payments", indexes = {
+        @Index(name = "idx_card_payments_car", columnList = "car_id"),
+        @Index(name = "idx_card_payments_timestamp", columnList = "payment_timestamp"),
+        @Index(name = "idx_card_payments_transaction", columnList = "transaction_id", unique = true)
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class CardPayment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "card_payments_seq")
+    @SequenceGenerator(name = "card_payments_seq", sequenceName = "card_payments_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "car_id", nullable = false)
     private Car car;
 
@@ -36,4 +41,9 @@ public class CardPayment {
 
     @Column(nullable = false)
     private LocalDateTime paymentTimestamp = LocalDateTime.now();
+
+    // Set by PaymentSettlementService once the payment is settled; null while settlement is pending
+    private String receiptNumber;
+
+    private LocalDateTime settledAt;
 }
@@ -8,17 +8,21 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "cash_payments")
+@Table(name = "cash_payments", indexes = {
+        @Index(name = "idx_cash_payments_car", columnList = "car_id"),
+        @Index(name = "idx_cash_payments_timestamp", columnList = "payment_timestamp")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class CashPayment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cash_payments_seq")
+    @SequenceGenerator(name = "cash_payments_seq", sequenceName = "cash_payments_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "car_id", nullable = false)
     private Car car;
 
@@ -36,4 +40,9 @@ public class CashPayment {
 
     @Column(nullable = false)
     private LocalDateTime paymentTimestamp = LocalDateTime.now();
+
+    // Set by PaymentSettlementService once the payment is settled; null while settlement is pending
+    private String receiptNumber;
+
+    private LocalDateTime settledAt;
 }
@@ -8,21 +8,27 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "inspection_records")
+@Table(name = "inspection_records", indexes = {
+        @Index(name = "idx_inspection_parking_lot", columnList = "parking_lot_id, inspection_time DESC, id DESC"),
+        @Index(name = "idx_inspection_admin", columnList = "admin_id"),
+        @Index(name = "idx_inspection_time", columnList = "inspection_time DESC, id DESC"),
+        @Index(name = "idx_inspection_status", columnList = "status, inspection_time DESC, id DESC")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class InspectionRecord {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inspection_records_seq")
+    @SequenceGenerator(name = "inspection_records_seq", sequenceName = "inspection_records_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "parking_lot_id", nullable = false)
     private ParkingLot parkingLot;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "admin_id", nullable = false)
     private Admin inspector;
 
@@ -40,4 +40,9 @@ public class LargeCar extends Car {
         }
         return false;
     }
+
+    @Override
+    protected boolean fits(ParkingSpot spot) {
+        return !spot.isSmallCarSpot();
+    }
 }
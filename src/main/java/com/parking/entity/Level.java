@@ -9,14 +9,17 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "levels")
+@Table(name = "levels", indexes = {
+        @Index(name = "idx_levels_parking_lot", columnList = "parking_lot_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Level {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "levels_seq")
+    @SequenceGenerator(name = "levels_seq", sequenceName = "levels_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
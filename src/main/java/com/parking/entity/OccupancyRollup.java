@@ -0,0 +1,56 @@
+package com.parking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Occupied-spot counts of one level downsampled to a fixed bucket (parking.occupancy.bucket-minutes).
+ * Written by OccupancySampler when it compacts its per-minute samples; read for history older than the
+ * in-memory window.
+ */
+@Entity
+@Table(name = "occupancy_rollups", indexes = {
+        @Index(name = "idx_occupancy_rollups_level", columnList = "level_id, bucket_start", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccupancyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "occupancy_rollups_seq")
+    @SequenceGenerator(name = "occupancy_rollups_seq", sequenceName = "occupancy_rollups_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long levelId;
+
+    @Column(nullable = false)
+    private Long parkingLotId;
+
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private int bucketMinutes;
+
+    // Number of per-minute samples the bucket was built from (less than bucketMinutes after a gap)
+    @Column(nullable = false)
+    private int samples;
+
+    @Column(nullable = false)
+    private int minOccupied;
+
+    @Column(nullable = false)
+    private int maxOccupied;
+
+    @Column(nullable = false)
+    private double avgOccupied;
+
+    @Column(nullable = false)
+    private int totalSpots;
+}
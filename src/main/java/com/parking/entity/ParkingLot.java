@@ -16,7 +16,8 @@ import java.util.List;
 public class ParkingLot {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "parking_lots_seq")
+    @SequenceGenerator(name = "parking_lots_seq", sequenceName = "parking_lots_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
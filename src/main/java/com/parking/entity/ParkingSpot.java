@@ -5,15 +5,20 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Entity
-@Table(name = "parking_spots")
+@Table(name = "parking_spots", indexes = {
+        @Index(name = "idx_spots_level_occupied", columnList = "level_id, is_occupied")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class ParkingSpot {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "parking_spots_seq")
+    @SequenceGenerator(name = "parking_spots_seq", sequenceName = "parking_spots_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -25,12 +30,21 @@ public class ParkingSpot {
     @Column(nullable = false)
     private boolean isOccupied = false;
 
+    // Set while a driver holds the spot ahead of arrival; cleared on park, release or expiry
+    private String reservationToken;
+
+    private LocalDateTime reservedUntil;
+
     @ManyToOne
     @JoinColumn(name = "level_id", nullable = false)
     private Level level;
 
     public boolean isAvailable() {
-        return !isOccupied;
+        return !isOccupied && reservationToken == null;
+    }
+
+    public boolean isReserved() {
+        return reservationToken != null;
     }
 
     public void setOccupied(boolean occupied) {
@@ -0,0 +1,61 @@
+package com.parking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Successful payments summed per hour and per day, by payment method and car type.
+ * Rows are only ever written through RevenueRollupRepository.add (an upsert in the payment's transaction).
+ */
+@Entity
+@Table(name = "revenue_rollups")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueRollup {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false)
+    private long paymentCount;
+
+    @Column(nullable = false)
+    private double totalAmount;
+
+    public enum Granularity {
+        HOUR, DAY
+    }
+
+    public enum CarType {
+        SMALL, LARGE
+    }
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        @Enumerated(EnumType.STRING)
+        @Column(nullable = false)
+        private Granularity granularity;
+
+        // Start of the hour or day the payments were made in
+        @Column(nullable = false)
+        private LocalDateTime bucketStart;
+
+        @Enumerated(EnumType.STRING)
+        @Column(nullable = false)
+        private SettlementTask.PaymentMethod paymentMethod;
+
+        @Enumerated(EnumType.STRING)
+        @Column(nullable = false)
+        private CarType carType;
+    }
+}
@@ -0,0 +1,69 @@
+package com.parking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row for a payment that still has to be settled (card authorization, receipt, reconciliation).
+ * Written in the same transaction as the payment and the exit; picked up by PaymentSettlementService.
+ */
+@Entity
+@Table(name = "settlement_tasks", indexes = {
+        @Index(name = "idx_settlement_tasks_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_settlement_tasks_payment", columnList = "payment_method, payment_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementTask {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "settlement_tasks_seq")
+    @SequenceGenerator(name = "settlement_tasks_seq", sequenceName = "settlement_tasks_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentMethod paymentMethod;
+
+    @Column(nullable = false)
+    private Long paymentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // Due time while PENDING; lease expiry while IN_PROGRESS
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt = LocalDateTime.now();
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime completedAt;
+
+    public enum PaymentMethod {
+        CARD, CASH
+    }
+
+    public enum Status {
+        PENDING, IN_PROGRESS, DONE, FAILED
+    }
+
+    public static SettlementTask pending(PaymentMethod paymentMethod, Long paymentId) {
+        SettlementTask task = new SettlementTask();
+        task.setPaymentMethod(paymentMethod);
+        task.setPaymentId(paymentId);
+        return task;
+    }
+}
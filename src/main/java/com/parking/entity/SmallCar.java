@@ -40,4 +40,9 @@ public class SmallCar extends Car {
         }
         return false;
     }
+
+    @Override
+    protected boolean fits(ParkingSpot spot) {
+        return spot.isSmallCarSpot();
+    }
 }
@@ -1,7 +1,10 @@
 package com.parking.exception;
 
+import com.parking.service.ParkingMetrics;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -18,6 +21,12 @@ public class GlobalExceptionHandler {
 
     private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private final ParkingMetrics parkingMetrics;
+
+    public GlobalExceptionHandler(ParkingMetrics parkingMetrics) {
+        this.parkingMetrics = parkingMetrics;
+    }
+
     // ── 404 Not Found ────────────────────────────────────────────────────────────
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<Map<String, Object>> handleNotFound(ResourceNotFoundException ex) {
@@ -25,17 +34,39 @@ public class GlobalExceptionHandler {
     }
 
     // ── 409 Conflict ─────────────────────────────────────────────────────────────
-    @ExceptionHandler({AlreadyParkedException.class, NotParkedException.class, NoAvailableSpotException.class})
+    @ExceptionHandler({AlreadyParkedException.class, NotParkedException.class, NoAvailableSpotException.class,
+            DuplicateResourceException.class})
     public ResponseEntity<Map<String, Object>> handleConflict(RuntimeException ex) {
+        parkingMetrics.rejected(ex);
         return build(HttpStatus.CONFLICT, ex.getMessage());
     }
 
+    // ── 307 / 409 Lot served by another node ────────────────────────────────────
+    @ExceptionHandler(LotNotOwnedException.class)
+    public ResponseEntity<Map<String, Object>> handleLotNotOwned(LotNotOwnedException ex, HttpServletRequest request) {
+        if (ex.getOwnerUrl() == null || ex.getOwnerUrl().isBlank()) {
+            return build(HttpStatus.CONFLICT, ex.getMessage());
+        }
+        // 307 makes clients repeat the same method and body against the owner
+        String query = request.getQueryString() != null ? "?" + request.getQueryString() : "";
+        return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+                .header(HttpHeaders.LOCATION, ex.getOwnerUrl() + request.getRequestURI() + query)
+                .body(body(HttpStatus.TEMPORARY_REDIRECT, ex.getMessage(), null));
+    }
+
     // ── 400 Bad Request ──────────────────────────────────────────────────────────
-    @ExceptionHandler({InsufficientPaymentException.class, InvalidDateRangeException.class})
+    @ExceptionHandler({InvalidDateRangeException.class, InvalidCursorException.class})
     public ResponseEntity<Map<String, Object>> handleBadRequest(RuntimeException ex) {
         return build(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    @ExceptionHandler(InsufficientPaymentException.class)
+    public ResponseEntity<Map<String, Object>> handleInsufficientPayment(InsufficientPaymentException ex) {
+        Map<String, Object> body = body(HttpStatus.BAD_REQUEST, ex.getMessage(), null);
+        if (ex.getAmountDue() != null) body.put("amountDue", ex.getAmountDue());
+        return ResponseEntity.badRequest().body(body);
+    }
+
     // ── 400 Validation (@Valid) ──────────────────────────────────────────────────
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidation(MethodArgumentNotValidException ex) {
@@ -60,13 +91,17 @@ public class GlobalExceptionHandler {
     }
 
     private ResponseEntity<Map<String, Object>> build(HttpStatus status, String message, List<String> errors) {
+        return ResponseEntity.status(status).body(body(status, message, errors));
+    }
+
+    private Map<String, Object> body(HttpStatus status, String message, List<String> errors) {
         Map<String, Object> body = new LinkedHashMap<>();
         body.put("timestamp", LocalDateTime.now().toString());
         body.put("status", status.value());
         body.put("error", status.getReasonPhrase());
         body.put("message", message);
         if (errors != null) body.put("errors", errors);
-        return ResponseEntity.status(status).body(body);
+        return body;
     }
 }
 
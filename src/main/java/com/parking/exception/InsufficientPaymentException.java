@@ -1,8 +1,20 @@
 package com.parking.exception;
 
+import lombok.Getter;
+
+@Getter
 public class InsufficientPaymentException extends RuntimeException {
+
+    // The amount due right now, so the client can retry with it; null when the shortfall is not about the price
+    private final Double amountDue;
+
     public InsufficientPaymentException(String message) {
+        this(message, null);
+    }
+
+    public InsufficientPaymentException(String message, Double amountDue) {
         super(message);
+        this.amountDue = amountDue;
     }
 }
 
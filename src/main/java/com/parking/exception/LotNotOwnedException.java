@@ -0,0 +1,20 @@
+package com.parking.exception;
+
+import lombok.Getter;
+
+/** The request concerns a parking lot served by another instance. */
+@Getter
+public class LotNotOwnedException extends RuntimeException {
+
+    private final Long parkingLotId;
+    private final int ownerNode;
+    // Base URL of the owner; blank when the cluster configuration does not list one
+    private final String ownerUrl;
+
+    public LotNotOwnedException(Long parkingLotId, int ownerNode, String ownerUrl) {
+        super("Parking lot " + parkingLotId + " is served by node " + ownerNode);
+        this.parkingLotId = parkingLotId;
+        this.ownerNode = ownerNode;
+        this.ownerUrl = ownerUrl;
+    }
+}
@@ -2,8 +2,11 @@ package com.parking.repository;
 
 import com.parking.entity.Car;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,6 +14,14 @@ public interface CarRepository extends JpaRepository<Car, Long> {
 
     Optional<Car> findByLicensePlate(String licensePlate);
 
+    @Query("SELECT c FROM Car c LEFT JOIN FETCH c.parkingSpot ps LEFT JOIN FETCH ps.level l " +
+           "LEFT JOIN FETCH l.parkingLot WHERE c.licensePlate = :licensePlate")
+    Optional<Car> findWithSpotByLicensePlate(String licensePlate);
+
     boolean existsByLicensePlate(String licensePlate);
+
+    @Query("SELECT c FROM Car c LEFT JOIN FETCH c.parkingSpot ps LEFT JOIN FETCH ps.level " +
+           "WHERE c.licensePlate IN :licensePlates")
+    List<Car> findByLicensePlateInWithSpot(Collection<String> licensePlates);
 }
 
@@ -2,6 +2,7 @@ package com.parking.repository;
 
 import com.parking.entity.CardPayment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -11,12 +12,28 @@ import java.util.Optional;
 @Repository
 public interface CardPaymentRepository extends JpaRepository<CardPayment, Long> {
 
-    List<CardPayment> findByCarId(Long carId);
+    String VIEW = "SELECT p.id AS id, c.id AS carId, c.licensePlate AS licensePlate, p.amount AS amount, " +
+                  "p.cardNumber AS cardNumber, p.transactionId AS transactionId, p.successful AS successful, " +
+                  "p.paymentTimestamp AS paymentTimestamp, p.receiptNumber AS receiptNumber, " +
+                  "p.settledAt AS settledAt FROM CardPayment p JOIN p.car c ";
 
     List<CardPayment> findBySuccessful(boolean successful);
 
-    List<CardPayment> findByPaymentTimestampBetween(LocalDateTime start, LocalDateTime end);
+    /** For settlement, which needs the car's type to book revenue. */
+    @Query("SELECT p FROM CardPayment p JOIN FETCH p.car WHERE p.id = :id")
+    Optional<CardPayment> findWithCarById(Long id);
 
-    Optional<CardPayment> findByTransactionId(String transactionId);
-}
+    // ─── Read views (one query each, no entity loading) ───
+
+    @Query(VIEW + "WHERE p.id = :id")
+    Optional<CardPaymentView> findViewById(Long id);
+
+    @Query(VIEW + "WHERE p.transactionId = :transactionId")
+    Optional<CardPaymentView> findViewByTransactionId(String transactionId);
 
+    @Query(VIEW + "WHERE c.id = :carId ORDER BY p.paymentTimestamp")
+    List<CardPaymentView> findViewsByCarId(Long carId);
+
+    @Query(VIEW + "WHERE p.paymentTimestamp BETWEEN :start AND :end ORDER BY p.paymentTimestamp")
+    List<CardPaymentView> findViewsByPaymentTimestampBetween(LocalDateTime start, LocalDateTime end);
+}
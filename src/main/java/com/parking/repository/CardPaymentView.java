@@ -0,0 +1,29 @@
+package com.parking.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns a card payment listing returns, read in one query together with the car's plate.
+ */
+public interface CardPaymentView {
+
+    Long getId();
+
+    Long getCarId();
+
+    String getLicensePlate();
+
+    double getAmount();
+
+    String getCardNumber();
+
+    String getTransactionId();
+
+    boolean isSuccessful();
+
+    LocalDateTime getPaymentTimestamp();
+
+    String getReceiptNumber();
+
+    LocalDateTime getSettledAt();
+}
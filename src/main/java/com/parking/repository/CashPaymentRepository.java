@@ -2,18 +2,31 @@ package com.parking.repository;
 
 import com.parking.entity.CashPayment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CashPaymentRepository extends JpaRepository<CashPayment, Long> {
 
-    List<CashPayment> findByCarId(Long carId);
+    String VIEW = "SELECT p.id AS id, c.id AS carId, c.licensePlate AS licensePlate, p.amount AS amount, " +
+                  "p.cashReceived AS cashReceived, p.changeGiven AS changeGiven, p.successful AS successful, " +
+                  "p.paymentTimestamp AS paymentTimestamp, p.receiptNumber AS receiptNumber, " +
+                  "p.settledAt AS settledAt FROM CashPayment p JOIN p.car c ";
 
     List<CashPayment> findBySuccessful(boolean successful);
 
-    List<CashPayment> findByPaymentTimestampBetween(LocalDateTime start, LocalDateTime end);
-}
+    // ─── Read views (one query each, no entity loading) ───
+
+    @Query(VIEW + "WHERE p.id = :id")
+    Optional<CashPaymentView> findViewById(Long id);
 
+    @Query(VIEW + "WHERE c.id = :carId ORDER BY p.paymentTimestamp")
+    List<CashPaymentView> findViewsByCarId(Long carId);
+
+    @Query(VIEW + "WHERE p.paymentTimestamp BETWEEN :start AND :end ORDER BY p.paymentTimestamp")
+    List<CashPaymentView> findViewsByPaymentTimestampBetween(LocalDateTime start, LocalDateTime end);
+}
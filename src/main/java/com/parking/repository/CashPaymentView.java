@@ -0,0 +1,29 @@
+package com.parking.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns a cash payment listing returns, read in one query together with the car's plate.
+ */
+public interface CashPaymentView {
+
+    Long getId();
+
+    Long getCarId();
+
+    String getLicensePlate();
+
+    double getAmount();
+
+    double getCashReceived();
+
+    double getChangeGiven();
+
+    boolean isSuccessful();
+
+    LocalDateTime getPaymentTimestamp();
+
+    String getReceiptNumber();
+
+    LocalDateTime getSettledAt();
+}
@@ -1,25 +1,62 @@
 package com.parking.repository;
 
 import com.parking.entity.InspectionRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface InspectionRecordRepository extends JpaRepository<InspectionRecord, Long> {
 
-    List<InspectionRecord> findByParkingLotId(Long parkingLotId);
+    String VIEW = "SELECT ir.id AS id, l.id AS parkingLotId, l.name AS parkingLotName, a.id AS adminId, " +
+                  "a.username AS adminUsername, ir.inspectionTime AS inspectionTime, ir.totalSpots AS totalSpots, " +
+                  "ir.occupiedSpots AS occupiedSpots, ir.availableSpots AS availableSpots, ir.status AS status, " +
+                  "ir.notes AS notes FROM InspectionRecord ir JOIN ir.parkingLot l JOIN ir.inspector a ";
 
-    List<InspectionRecord> findByInspectorId(Long inspectorId);
+    // Strictly before the given (inspectionTime, id), newest first
+    String BEFORE = "AND (ir.inspectionTime < :beforeTime OR (ir.inspectionTime = :beforeTime AND ir.id < :beforeId)) ";
+    String NEWEST_FIRST = "ORDER BY ir.inspectionTime DESC, ir.id DESC";
 
-    List<InspectionRecord> findByStatus(InspectionRecord.InspectionStatus status);
+    /** For updates, which return the lot name and inspector username. */
+    @Query("SELECT ir FROM InspectionRecord ir JOIN FETCH ir.parkingLot JOIN FETCH ir.inspector WHERE ir.id = :id")
+    Optional<InspectionRecord> findWithLotAndInspectorById(Long id);
 
-    List<InspectionRecord> findByInspectionTimeBetween(LocalDateTime start, LocalDateTime end);
+    @Query(VIEW + "WHERE ir.id = :id")
+    Optional<InspectionRecordView> findViewById(Long id);
 
-    @Query("SELECT ir FROM InspectionRecord ir WHERE ir.parkingLot.id = :parkingLotId ORDER BY ir.inspectionTime DESC")
-    List<InspectionRecord> findLatestInspectionsByParkingLot(Long parkingLotId);
-}
+    @Query(VIEW + "WHERE a.id = :inspectorId " + NEWEST_FIRST)
+    List<InspectionRecordView> findViewsByInspectorId(Long inspectorId);
+
+    // ─── Keyset pages ───
+
+    @Query(VIEW + "WHERE l.id = :parkingLotId " + BEFORE + NEWEST_FIRST)
+    List<InspectionRecordView> findPageByParkingLot(Long parkingLotId, LocalDateTime beforeTime, Long beforeId,
+                                                    Limit limit);
+
+    @Query(VIEW + "WHERE ir.status = :status " + BEFORE + NEWEST_FIRST)
+    List<InspectionRecordView> findPageByStatus(InspectionRecord.InspectionStatus status, LocalDateTime beforeTime,
+                                                Long beforeId, Limit limit);
 
+    @Query(VIEW + "WHERE ir.inspectionTime BETWEEN :start AND :end " + BEFORE + NEWEST_FIRST)
+    List<InspectionRecordView> findPageByInspectionTimeBetween(LocalDateTime start, LocalDateTime end,
+                                                               LocalDateTime beforeTime, Long beforeId, Limit limit);
+
+    // ─── Streams for export (must be consumed inside a transaction and closed) ───
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(VIEW + "WHERE l.id = :parkingLotId " + NEWEST_FIRST)
+    Stream<InspectionRecordView> streamByParkingLot(Long parkingLotId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(VIEW + "WHERE ir.inspectionTime BETWEEN :start AND :end " + NEWEST_FIRST)
+    Stream<InspectionRecordView> streamByInspectionTimeBetween(LocalDateTime start, LocalDateTime end);
+}
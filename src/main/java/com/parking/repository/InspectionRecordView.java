@@ -0,0 +1,39 @@
+package com.parking.repository;
+
+import com.parking.entity.InspectionRecord.InspectionStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns an inspection listing returns, read in one query together with the lot name and inspector
+ * username instead of loading the ParkingLot and Admin entities.
+ */
+public interface InspectionRecordView {
+
+    Long getId();
+
+    Long getParkingLotId();
+
+    String getParkingLotName();
+
+    Long getAdminId();
+
+    String getAdminUsername();
+
+    LocalDateTime getInspectionTime();
+
+    int getTotalSpots();
+
+    int getOccupiedSpots();
+
+    int getAvailableSpots();
+
+    InspectionStatus getStatus();
+
+    String getNotes();
+
+    default double getOccupancyRate() {
+        if (getTotalSpots() == 0) return 0.0;
+        return (double) getOccupiedSpots() / getTotalSpots() * 100;
+    }
+}
@@ -0,0 +1,21 @@
+package com.parking.repository;
+
+/**
+ * Per-level spot totals computed from parking_spots, used to (re)seed the in-memory level counters.
+ */
+public interface LevelOccupancyView {
+
+    Long getLevelId();
+
+    Long getParkingLotId();
+
+    Boolean getSmallCarLevel();
+
+    Long getTotalSpots();
+
+    // Unoccupied, including reserved spots
+    Long getAvailableSpots();
+
+    // Unoccupied but held by a reservation
+    Long getReservedSpots();
+}
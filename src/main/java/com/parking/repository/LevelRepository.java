@@ -2,9 +2,13 @@ package com.parking.repository;
 
 import com.parking.entity.Level;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface LevelRepository extends JpaRepository<Level, Long> {
@@ -12,5 +16,21 @@ public interface LevelRepository extends JpaRepository<Level, Long> {
     List<Level> findByParkingLotId(Long parkingLotId);
 
     List<Level> findByIsSmallCarLevel(boolean isSmallCarLevel);
-}
 
+    @Query("SELECT l.parkingLot.id FROM Level l WHERE l.id = :levelId")
+    Optional<Long> findParkingLotIdById(Long levelId);
+
+    @Query("SELECT l.id AS levelId, l.parkingLot.id AS parkingLotId, l.isSmallCarLevel AS smallCarLevel, " +
+           "COUNT(ps) AS totalSpots, " +
+           "SUM(CASE WHEN ps.isOccupied = false THEN 1 ELSE 0 END) AS availableSpots, " +
+           "SUM(CASE WHEN ps.isOccupied = false AND ps.reservationToken IS NOT NULL THEN 1 ELSE 0 END) AS reservedSpots " +
+           "FROM Level l LEFT JOIN l.parkingSpots ps " +
+           "GROUP BY l.id, l.parkingLot.id, l.isSmallCarLevel, l.levelNumber " +
+           "ORDER BY l.parkingLot.id, l.levelNumber, l.id")
+    List<LevelOccupancyView> findLevelOccupancy();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Level l SET l.availableSpots = :availableSpots WHERE l.id = :levelId")
+    int updateAvailableSpots(Long levelId, int availableSpots);
+}
@@ -0,0 +1,13 @@
+package com.parking.repository;
+
+/**
+ * Spot totals for one parking lot computed from parking_spots, used by inspections.
+ */
+public interface LotOccupancyView {
+
+    Long getParkingLotId();
+
+    Long getTotalSpots();
+
+    Long getOccupiedSpots();
+}
@@ -0,0 +1,27 @@
+package com.parking.repository;
+
+import com.parking.entity.OccupancyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OccupancyRollupRepository extends JpaRepository<OccupancyRollup, Long> {
+
+    @Query("SELECT r FROM OccupancyRollup r WHERE r.levelId = :levelId " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.bucketStart")
+    List<OccupancyRollup> findBuckets(Long levelId, LocalDateTime from, LocalDateTime to);
+
+    Optional<OccupancyRollup> findTopByLevelIdOrderByBucketStartDesc(Long levelId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OccupancyRollup r WHERE r.bucketStart < :cutoff")
+    int deleteOlderThan(LocalDateTime cutoff);
+}
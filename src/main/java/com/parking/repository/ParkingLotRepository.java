@@ -2,8 +2,10 @@ package com.parking.repository;
 
 import com.parking.entity.ParkingLot;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,5 +14,21 @@ public interface ParkingLotRepository extends JpaRepository<ParkingLot, Long> {
     Optional<ParkingLot> findByName(String name);
 
     boolean existsByName(String name);
+
+    @Query("SELECT pl.id FROM ParkingLot pl ORDER BY pl.id")
+    List<Long> findAllIds();
+
+    /** Total and occupied spots of every lot in one grouped pass; lots without spots report zeros. */
+    @Query("SELECT pl.id AS parkingLotId, COUNT(ps) AS totalSpots, " +
+           "COALESCE(SUM(CASE WHEN ps.isOccupied = true THEN 1 ELSE 0 END), 0) AS occupiedSpots " +
+           "FROM ParkingLot pl LEFT JOIN pl.levels l LEFT JOIN l.parkingSpots ps " +
+           "GROUP BY pl.id ORDER BY pl.id")
+    List<LotOccupancyView> findLotOccupancy();
+
+    @Query("SELECT pl.id AS parkingLotId, COUNT(ps) AS totalSpots, " +
+           "COALESCE(SUM(CASE WHEN ps.isOccupied = true THEN 1 ELSE 0 END), 0) AS occupiedSpots " +
+           "FROM ParkingLot pl LEFT JOIN pl.levels l LEFT JOIN l.parkingSpots ps " +
+           "WHERE pl.id = :parkingLotId GROUP BY pl.id")
+    Optional<LotOccupancyView> findLotOccupancyById(Long parkingLotId);
 }
 
@@ -1,10 +1,17 @@
 package com.parking.repository;
 
 import com.parking.entity.ParkingSpot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -25,9 +32,72 @@ public interface ParkingSpotRepository extends JpaRepository<ParkingSpot, Long>
     @Query("SELECT ps FROM ParkingSpot ps JOIN FETCH ps.level WHERE ps.isSmallCarSpot = :isSmallCarSpot AND ps.isOccupied = false")
     List<ParkingSpot> findAvailableSpotsByTypeWithLevel(boolean isSmallCarSpot);
 
-    @Query("SELECT COUNT(ps) FROM ParkingSpot ps WHERE ps.level.parkingLot.id = :parkingLotId")
-    int countByParkingLotId(Long parkingLotId);
+    /**
+     * Atomically marks a spot occupied only if it is still free, or reserved under the given token
+     * (pass null for an ordinary claim). Consumes the reservation in the same statement.
+     * Returns 1 when this caller won the spot, 0 when another transaction already holds it.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ParkingSpot ps SET ps.isOccupied = true, ps.reservationToken = null, ps.reservedUntil = null " +
+           "WHERE ps.id = :spotId AND ps.isOccupied = false " +
+           "AND (ps.reservationToken IS NULL OR ps.reservationToken = :reservationToken)")
+    int claimIfFree(Long spotId, String reservationToken);
 
-    @Query("SELECT COUNT(ps) FROM ParkingSpot ps WHERE ps.level.parkingLot.id = :parkingLotId AND ps.isOccupied = true")
-    int countOccupiedByParkingLotId(Long parkingLotId);
+    /**
+     * Set-based {@link #claimIfFree} for a batch of unreserved spots: marks every one that is still free as
+     * occupied in a single statement and returns the ids this caller won. PostgreSQL only (RETURNING).
+     * Not {@code @Modifying}, which only allows a row count back; the won ids arrive as a result set instead,
+     * and the flush-mode hint gives the same flush-before-execute as claimIfFree's flushAutomatically.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "ALWAYS"))
+    @Query(value = "UPDATE parking_spots SET is_occupied = true " +
+                   "WHERE id IN (:spotIds) AND is_occupied = false AND reservation_token IS NULL " +
+                   "RETURNING id",
+           nativeQuery = true)
+    List<Long> claimAllIfFree(Collection<Long> spotIds);
+
+    @Query("SELECT ps FROM ParkingSpot ps JOIN FETCH ps.level l JOIN FETCH l.parkingLot WHERE ps.id IN :spotIds")
+    List<ParkingSpot> findWithLevelByIdIn(Collection<Long> spotIds);
+
+    /** Marks a free, unreserved spot as reserved until the given time. Returns 1 on success. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ParkingSpot ps SET ps.reservationToken = :reservationToken, ps.reservedUntil = :reservedUntil " +
+           "WHERE ps.id = :spotId AND ps.isOccupied = false AND ps.reservationToken IS NULL")
+    int reserveIfFree(Long spotId, String reservationToken, LocalDateTime reservedUntil);
+
+    /** Clears a reservation if it is still held under the given token. Returns 1 if it was. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ParkingSpot ps SET ps.reservationToken = null, ps.reservedUntil = null " +
+           "WHERE ps.id = :spotId AND ps.reservationToken = :reservationToken")
+    int releaseReservation(Long spotId, String reservationToken);
+
+    List<ParkingSpot> findByReservationTokenIsNotNull();
+
+    @Query("SELECT ps.id AS spotId, ps.spotNumber AS spotNumber, ps.isSmallCarSpot AS smallCarSpot, " +
+           "ps.isOccupied AS occupied, " +
+           "CASE WHEN ps.reservationToken IS NOT NULL THEN true ELSE false END AS reserved, " +
+           "l.id AS levelId, l.parkingLot.id AS parkingLotId " +
+           "FROM ParkingSpot ps JOIN ps.level l " +
+           "ORDER BY l.parkingLot.id, l.levelNumber, l.id, ps.spotNumber")
+    List<SpotStateView> findAllSpotStates();
+
+    @Query("SELECT ps.id AS spotId, ps.spotNumber AS spotNumber, ps.isSmallCarSpot AS smallCarSpot, " +
+           "ps.isOccupied AS occupied, " +
+           "CASE WHEN ps.reservationToken IS NOT NULL THEN true ELSE false END AS reserved, " +
+           "l.id AS levelId, l.parkingLot.id AS parkingLotId " +
+           "FROM ParkingSpot ps JOIN ps.level l " +
+           "WHERE l.parkingLot.id = :parkingLotId " +
+           "ORDER BY l.levelNumber, l.id, ps.spotNumber")
+    List<SpotStateView> findSpotStatesByParkingLotId(Long parkingLotId);
+
+    @Query("SELECT ps.id AS spotId, ps.spotNumber AS spotNumber, ps.isSmallCarSpot AS smallCarSpot, " +
+           "ps.isOccupied AS occupied, " +
+           "CASE WHEN ps.reservationToken IS NOT NULL THEN true ELSE false END AS reserved, " +
+           "l.id AS levelId, l.parkingLot.id AS parkingLotId " +
+           "FROM ParkingSpot ps JOIN ps.level l " +
+           "WHERE l.parkingLot.id IN :parkingLotIds " +
+           "ORDER BY l.parkingLot.id, l.levelNumber, l.id, ps.spotNumber")
+    List<SpotStateView> findSpotStatesByParkingLotIdIn(Collection<Long> parkingLotIds);
 }
@@ -0,0 +1,73 @@
+package com.parking.repository;
+
+import com.parking.entity.RevenueRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, RevenueRollup.Key> {
+
+    /** Adds one payment to its hour and day buckets, creating either row on first use. */
+    @Modifying
+    @Query(value = "INSERT INTO revenue_rollups " +
+                   "(granularity, bucket_start, payment_method, car_type, payment_count, total_amount) " +
+                   "VALUES ('HOUR', :hourStart, :paymentMethod, :carType, 1, :amount), " +
+                   "       ('DAY', :dayStart, :paymentMethod, :carType, 1, :amount) " +
+                   "ON CONFLICT (granularity, bucket_start, payment_method, car_type) DO UPDATE " +
+                   "SET payment_count = revenue_rollups.payment_count + 1, " +
+                   "    total_amount = revenue_rollups.total_amount + EXCLUDED.total_amount",
+           nativeQuery = true)
+    int add(LocalDateTime hourStart, LocalDateTime dayStart, String paymentMethod, String carType, double amount);
+
+    @Query("SELECT r.id.paymentMethod AS paymentMethod, r.id.carType AS carType, " +
+           "SUM(r.paymentCount) AS paymentCount, SUM(r.totalAmount) AS totalAmount " +
+           "FROM RevenueRollup r " +
+           "WHERE r.id.granularity = :granularity AND r.id.bucketStart >= :from AND r.id.bucketStart < :to " +
+           "GROUP BY r.id.paymentMethod, r.id.carType")
+    List<RevenueTotalsView> sumByMethodAndCarType(RevenueRollup.Granularity granularity,
+                                                  LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT r FROM RevenueRollup r " +
+           "WHERE r.id.granularity = :granularity AND r.id.bucketStart >= :from AND r.id.bucketStart < :to " +
+           "ORDER BY r.id.bucketStart, r.id.paymentMethod, r.id.carType")
+    List<RevenueRollup> findBuckets(RevenueRollup.Granularity granularity, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Records a one-off data migration. Returns 1 for the caller that applies it and 0 once it has been applied;
+     * a concurrent caller waits on the primary key until the first one commits or rolls back.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO data_migrations (name, applied_at) VALUES (:name, now()) " +
+                   "ON CONFLICT (name) DO NOTHING",
+           nativeQuery = true)
+    int markMigrationApplied(String name);
+
+    /** Makes every {@link #add} wait until the calling transaction ends, while the buckets are rebuilt. */
+    @Modifying
+    @Query(value = "LOCK TABLE revenue_rollups IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    /** Rebuilds every bucket from the payment tables; used once to backfill payments made before rollups existed. */
+    @Modifying
+    @Query(value = "INSERT INTO revenue_rollups " +
+                   "(granularity, bucket_start, payment_method, car_type, payment_count, total_amount) " +
+                   "SELECT g.granularity, " +
+                   "       CASE g.granularity WHEN 'HOUR' THEN date_trunc('hour', p.payment_timestamp) " +
+                   "                          ELSE date_trunc('day', p.payment_timestamp) END AS bucket_start, " +
+                   "       p.payment_method, CAST(c.car_type AS TEXT), COUNT(*), SUM(p.amount) " +
+                   "FROM (SELECT car_id, amount, payment_timestamp, 'CARD' AS payment_method " +
+                   "        FROM card_payments WHERE successful = true " +
+                   "      UNION ALL " +
+                   "      SELECT car_id, amount, payment_timestamp, 'CASH' " +
+                   "        FROM cash_payments WHERE successful = true) p " +
+                   "JOIN cars c ON c.id = p.car_id " +
+                   "CROSS JOIN (VALUES ('HOUR'), ('DAY')) AS g(granularity) " +
+                   "GROUP BY g.granularity, bucket_start, p.payment_method, c.car_type",
+           nativeQuery = true)
+    int backfill();
+}
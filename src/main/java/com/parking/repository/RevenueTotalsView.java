@@ -0,0 +1,18 @@
+package com.parking.repository;
+
+import com.parking.entity.RevenueRollup;
+import com.parking.entity.SettlementTask;
+
+/**
+ * Revenue summed over a range of rollup buckets for one payment method and car type.
+ */
+public interface RevenueTotalsView {
+
+    SettlementTask.PaymentMethod getPaymentMethod();
+
+    RevenueRollup.CarType getCarType();
+
+    Long getPaymentCount();
+
+    Double getTotalAmount();
+}
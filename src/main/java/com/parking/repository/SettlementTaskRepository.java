@@ -0,0 +1,37 @@
+package com.parking.repository;
+
+import com.parking.entity.SettlementTask;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SettlementTaskRepository extends JpaRepository<SettlementTask, Long> {
+
+    /**
+     * Locks up to {@code limit} tasks that are due, including IN_PROGRESS tasks whose lease ran out.
+     * Rows locked by another poller are skipped rather than waited on, so several instances can drain
+     * the table concurrently. Must run inside a transaction.
+     */
+    @Query(value = "SELECT * FROM settlement_tasks " +
+                   "WHERE status IN ('PENDING', 'IN_PROGRESS') AND next_attempt_at <= :now " +
+                   "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<SettlementTask> lockDue(LocalDateTime now, int limit);
+
+    /**
+     * SELECT ... FOR UPDATE on one task, so a worker can check that it still holds the lease and change the
+     * task before anyone else can. Must run inside a transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM SettlementTask t WHERE t.id = :id")
+    Optional<SettlementTask> lockById(Long id);
+
+    long countByStatus(SettlementTask.Status status);
+}
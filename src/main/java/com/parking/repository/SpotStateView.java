@@ -0,0 +1,22 @@
+package com.parking.repository;
+
+/**
+ * Lightweight projection of a parking spot's placement and occupancy.
+ * Used to warm in-memory indexes without hydrating ParkingSpot / Level entities.
+ */
+public interface SpotStateView {
+
+    Long getSpotId();
+
+    Integer getSpotNumber();
+
+    Boolean getSmallCarSpot();
+
+    Boolean getOccupied();
+
+    Boolean getReserved();
+
+    Long getLevelId();
+
+    Long getParkingLotId();
+}
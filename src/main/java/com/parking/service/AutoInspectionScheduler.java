@@ -0,0 +1,85 @@
+package com.parking.service;
+
+import com.parking.entity.Admin;
+import com.parking.entity.InspectionRecord;
+import com.parking.repository.AdminRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Inspects every lot this node owns on a schedule (parking.inspection.auto.cron, "-" to disable), so in a
+ * cluster each lot is inspected once per run.
+ * Records are attributed to a dedicated system inspector account, created on first use with an unusable
+ * random password.
+ */
+@Slf4j
+@Component
+public class AutoInspectionScheduler {
+
+    private static final String NOTES = "Automatic inspection";
+
+    private final IAdminInspectionService adminInspectionService;
+    private final AdminRepository adminRepository;
+    private final LotOwnership lotOwnership;
+    private final String inspectorUsername;
+    private volatile Long inspectorId;
+
+    public AutoInspectionScheduler(IAdminInspectionService adminInspectionService,
+                                   AdminRepository adminRepository,
+                                   LotOwnership lotOwnership,
+                                   @Value("${parking.inspection.auto.inspector:system}") String inspectorUsername) {
+        this.adminInspectionService = adminInspectionService;
+        this.adminRepository = adminRepository;
+        this.lotOwnership = lotOwnership;
+        this.inspectorUsername = inspectorUsername;
+    }
+
+    @Scheduled(cron = "${parking.inspection.auto.cron:0 0 * * * *}")
+    public void inspectAllLots() {
+        try {
+            List<InspectionRecord> records = adminInspectionService.inspectLots(inspector(), NOTES,
+                    lotOwnership::owns);
+            long flagged = records.stream()
+                    .filter(r -> r.getStatus() != InspectionRecord.InspectionStatus.PASSED)
+                    .count();
+            log.info("[AutoInspectionScheduler] Inspected {} lot(s), {} flagged.", records.size(), flagged);
+        } catch (Exception e) {
+            log.warn("[AutoInspectionScheduler] Automatic inspection failed: {}", e.getMessage());
+        }
+    }
+
+    // ─── Private Helpers ─────────────────────────────────────────────────────────
+
+    private Long inspector() {
+        Long id = inspectorId;
+        if (id == null) {
+            id = adminRepository.findByUsername(inspectorUsername)
+                    .orElseGet(this::createInspector)
+                    .getId();
+            inspectorId = id;
+        }
+        return id;
+    }
+
+    private Admin createInspector() {
+        Admin admin = new Admin();
+        admin.setUsername(inspectorUsername);
+        admin.setPassword(UUID.randomUUID().toString()); // not meant for logging in
+        admin.setFullName("Automatic Inspection");
+        admin.setRole(Admin.Role.ADMIN);
+        try {
+            Admin saved = adminRepository.save(admin);
+            log.info("[AutoInspectionScheduler] Created system inspector '{}'.", inspectorUsername);
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created it first
+            return adminRepository.findByUsername(inspectorUsername).orElseThrow(() -> e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.parking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.parking.entity.Car;
+import com.parking.entity.ParkingSpot;
+import com.parking.entity.SmallCar;
+import com.parking.repository.CarRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Bounded, TTL-evicting cache of car snapshots keyed by license plate.
+ * Quotes and the park / leave fast-reject checks read from here instead of rehydrating the cars row;
+ * entries are dropped after any committed park, leave or payment for the plate, and the TTL bounds
+ * staleness from writes that bypass the services. Invalidations are local, so in a cluster only a snapshot of a
+ * car parked in a lot this node owns is trusted, for quotes and fast-rejects alike: every later park or leave of
+ * that car runs here.
+ */
+@Component
+public class CarLookupCache {
+
+    private final CarRepository carRepository;
+    private final LotOwnership lotOwnership;
+    private final Cache<String, CarSnapshot> snapshots;
+
+    public CarLookupCache(CarRepository carRepository,
+                          LotOwnership lotOwnership,
+                          MeterRegistry meterRegistry,
+                          @Value("${parking.cache.plates.max-size:10000}") long maxSize,
+                          @Value("${parking.cache.plates.ttl-seconds:300}") long ttlSeconds) {
+        this.carRepository = carRepository;
+        this.lotOwnership = lotOwnership;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "parking.plates");
+    }
+
+    /**
+     * The car registered under {@code licensePlate}, loading it on a miss. Unknown plates are not cached.
+     * In a cluster only a snapshot {@link #peek} trusts is served from the cache; any other is reloaded.
+     */
+    public Optional<CarSnapshot> find(String licensePlate) {
+        if (lotOwnership.isClustered() && peek(licensePlate).isEmpty()) {
+            // Another node may have parked or released the car since it was cached
+            snapshots.invalidate(licensePlate);
+        }
+        return Optional.ofNullable(snapshots.get(licensePlate,
+                plate -> carRepository.findWithSpotByLicensePlate(plate).map(CarSnapshot::of).orElse(null)));
+    }
+
+    /**
+     * The cached snapshot, if any and if it can be trusted, without touching the database. In a cluster a
+     * snapshot is only returned for a car parked in a lot this node owns; other nodes may have parked or
+     * released the car since it was cached.
+     */
+    public Optional<CarSnapshot> peek(String licensePlate) {
+        return Optional.ofNullable(snapshots.getIfPresent(licensePlate))
+                .filter(snapshot -> !lotOwnership.isClustered()
+                        || snapshot.parked() && snapshot.parkingLotId() != null
+                           && lotOwnership.owns(snapshot.parkingLotId()));
+    }
+
+    public void invalidate(String licensePlate) {
+        snapshots.invalidate(licensePlate);
+    }
+
+    // ─── Car events ──────────────────────────────────────────────────────────────
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCommit(CarStateChangedEvent event) {
+        // Blocks on any in-flight load of the same plate, so a pre-commit read cannot survive this
+        invalidate(event.licensePlate());
+    }
+
+    // ─── Types ───────────────────────────────────────────────────────────────────
+
+    public record CarSnapshot(Long carId, String licensePlate, String make, String model, int hourlyRate,
+                              boolean smallCar, boolean parked, Long spotId, Long parkingLotId,
+                              LocalDateTime parkedSince) {
+
+        static CarSnapshot of(Car car) {
+            ParkingSpot spot = car.getParkingSpot();
+            Long spotId = spot != null ? spot.getId() : null;
+            Long parkingLotId = spot != null ? spot.getLevel().getParkingLot().getId() : null;
+            return new CarSnapshot(car.getId(), car.getLicensePlate(), car.getMake(), car.getModel(),
+                    car.getHourlyRate(), car instanceof SmallCar, car.isParked(), spotId, parkingLotId,
+                    car.getParkedSince());
+        }
+    }
+}
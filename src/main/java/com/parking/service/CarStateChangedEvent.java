@@ -0,0 +1,8 @@
+package com.parking.service;
+
+/**
+ * Published inside any transaction that parks, releases or settles a car.
+ * Cached views of the car are dropped once it commits.
+ */
+public record CarStateChangedEvent(String licensePlate) {
+}
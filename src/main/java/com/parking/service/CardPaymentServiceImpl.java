@@ -1,15 +1,24 @@
 package com.parking.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.parking.entity.Car;
 import com.parking.entity.CardPayment;
+import com.parking.entity.SettlementTask;
+import com.parking.exception.InsufficientPaymentException;
 import com.parking.exception.InvalidDateRangeException;
 import com.parking.exception.NotParkedException;
 import com.parking.exception.ResourceNotFoundException;
 import com.parking.repository.CardPaymentRepository;
+import com.parking.repository.CardPaymentView;
+import com.parking.repository.SettlementTaskRepository;
 import com.parking.repository.CarRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -19,15 +28,33 @@ public class CardPaymentServiceImpl implements ICardPaymentService {
     private final CardPaymentRepository cardPaymentRepository;
     private final CarRepository carRepository;
     private final ILeaveService leaveService;
+    private final SettlementTaskRepository settlementTaskRepository;
+    private final PricingEngine pricingEngine;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final ApplicationEventPublisher eventPublisher;
+    // Stands in for the card network's idempotency store: a repeated key gets the first outcome back
+    private final Cache<String, Boolean> authorizations = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofHours(24))
+            .build();
 
     public CardPaymentServiceImpl(CardPaymentRepository cardPaymentRepository,
                                   CarRepository carRepository,
-                                  ILeaveService leaveService) {
+                                  ILeaveService leaveService,
+                                  SettlementTaskRepository settlementTaskRepository,
+                                  PricingEngine pricingEngine,
+                                  TransactionIdGenerator transactionIdGenerator,
+                                  ApplicationEventPublisher eventPublisher) {
         this.cardPaymentRepository = cardPaymentRepository;
         this.carRepository = carRepository;
         this.leaveService = leaveService;
+        this.settlementTaskRepository = settlementTaskRepository;
+        this.pricingEngine = pricingEngine;
+        this.transactionIdGenerator = transactionIdGenerator;
+        this.eventPublisher = eventPublisher;
     }
 
+    @Timed(value = "parking.payment.card", description = "Settle a stay by card")
     @Transactional
     @Override
     public CardPayment processCardPayment(Long carId, double amount, String cardNumber) {
@@ -38,25 +65,40 @@ public class CardPaymentServiceImpl implements ICardPaymentService {
             throw new NotParkedException("Car is not currently parked, cannot process payment: " + carId);
         }
 
+        LocalDateTime now = LocalDateTime.now();
+        if (amount + 0.005 < pricingEngine.minimumPayment(car, now)) {
+            double amountDue = pricingEngine.quote(car, now).amountDue();
+            throw new InsufficientPaymentException(
+                    "Insufficient payment: amount " + amount + " is below the amount due " + amountDue, amountDue);
+        }
+
         CardPayment payment = new CardPayment();
         payment.setCar(car);
         payment.setAmount(amount);
         payment.setCardNumber(cardNumber);
-        payment.setPaymentTimestamp(LocalDateTime.now());
-        payment.setTransactionId("TXN" + System.currentTimeMillis());
-
-        boolean success = processPayment(amount);
-        payment.setSuccessful(success);
+        payment.setPaymentTimestamp(now);
+        payment.setTransactionId(transactionIdGenerator.nextTransactionId());
+        // Authorized later by PaymentSettlementService; the gate does not wait on the card network
+        payment.setSuccessful(false);
 
         CardPayment saved = cardPaymentRepository.save(payment);
+        settlementTaskRepository.save(SettlementTask.pending(SettlementTask.PaymentMethod.CARD, saved.getId()));
+        eventPublisher.publishEvent(new CarStateChangedEvent(car.getLicensePlate()));
 
-        if (success) {
-            leaveService.leave(car.getLicensePlate());
-        }
+        leaveService.leave(car.getLicensePlate());
 
         return saved;
     }
 
+    /**
+     * Card authorization, called from the settlement workers. The key identifies the payment, so a settlement
+     * retried after a lost lease is answered with the first outcome instead of charging the card again.
+     */
+    @Override
+    public boolean authorize(String idempotencyKey, double amount) {
+        return authorizations.get(idempotencyKey, key -> processPayment(amount));
+    }
+
     @Override
     public boolean processPayment(double amount) {
         // Simulate card authorization
@@ -79,28 +121,28 @@ public class CardPaymentServiceImpl implements ICardPaymentService {
     }
 
     @Override
-    public CardPayment getPaymentById(Long id) {
-        return cardPaymentRepository.findById(id)
+    public CardPaymentView getPaymentById(Long id) {
+        return cardPaymentRepository.findViewById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Card payment not found: " + id));
     }
 
     @Override
-    public CardPayment getPaymentByTransactionId(String transactionId) {
-        return cardPaymentRepository.findByTransactionId(transactionId)
+    public CardPaymentView getPaymentByTransactionId(String transactionId) {
+        return cardPaymentRepository.findViewByTransactionId(transactionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction not found: " + transactionId));
     }
 
     @Override
-    public List<CardPayment> getPaymentsByCarId(Long carId) {
-        return cardPaymentRepository.findByCarId(carId);
+    public List<CardPaymentView> getPaymentsByCarId(Long carId) {
+        return cardPaymentRepository.findViewsByCarId(carId);
     }
 
     @Override
-    public List<CardPayment> getPaymentsByDateRange(LocalDateTime start, LocalDateTime end) {
+    public List<CardPaymentView> getPaymentsByDateRange(LocalDateTime start, LocalDateTime end) {
         if (start.isAfter(end)) {
             throw new InvalidDateRangeException("Start time must be before end time");
         }
-        return cardPaymentRepository.findByPaymentTimestampBetween(start, end);
+        return cardPaymentRepository.findViewsByPaymentTimestampBetween(start, end);
     }
 }
 
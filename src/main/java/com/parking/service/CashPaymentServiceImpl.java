@@ -2,13 +2,18 @@ package com.parking.service;
 
 import com.parking.entity.Car;
 import com.parking.entity.CashPayment;
+import com.parking.entity.SettlementTask;
 import com.parking.exception.InsufficientPaymentException;
 import com.parking.exception.InvalidDateRangeException;
 import com.parking.exception.NotParkedException;
 import com.parking.exception.ResourceNotFoundException;
 import com.parking.repository.CarRepository;
 import com.parking.repository.CashPaymentRepository;
+import com.parking.repository.CashPaymentView;
+import com.parking.repository.SettlementTaskRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -20,15 +25,28 @@ public class CashPaymentServiceImpl implements ICashPaymentService {
     private final CashPaymentRepository cashPaymentRepository;
     private final CarRepository carRepository;
     private final ILeaveService leaveService;
+    private final SettlementTaskRepository settlementTaskRepository;
+    private final PricingEngine pricingEngine;
+    private final RevenueRollupService revenueRollupService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public CashPaymentServiceImpl(CashPaymentRepository cashPaymentRepository,
                                   CarRepository carRepository,
-                                  ILeaveService leaveService) {
+                                  ILeaveService leaveService,
+                                  SettlementTaskRepository settlementTaskRepository,
+                                  PricingEngine pricingEngine,
+                                  RevenueRollupService revenueRollupService,
+                                  ApplicationEventPublisher eventPublisher) {
         this.cashPaymentRepository = cashPaymentRepository;
         this.carRepository = carRepository;
         this.leaveService = leaveService;
+        this.settlementTaskRepository = settlementTaskRepository;
+        this.pricingEngine = pricingEngine;
+        this.revenueRollupService = revenueRollupService;
+        this.eventPublisher = eventPublisher;
     }
 
+    @Timed(value = "parking.payment.cash", description = "Settle a stay in cash")
     @Transactional
     @Override
     public CashPayment processCashPayment(Long carId, double amount, double cashReceived) {
@@ -39,6 +57,13 @@ public class CashPaymentServiceImpl implements ICashPaymentService {
             throw new NotParkedException("Car is not currently parked, cannot process payment: " + carId);
         }
 
+        LocalDateTime now = LocalDateTime.now();
+        if (amount + 0.005 < pricingEngine.minimumPayment(car, now)) {
+            double amountDue = pricingEngine.quote(car, now).amountDue();
+            throw new InsufficientPaymentException(
+                    "Insufficient payment: amount " + amount + " is below the amount due " + amountDue, amountDue);
+        }
+
         if (cashReceived < amount) {
             throw new InsufficientPaymentException(
                     "Insufficient cash: received " + cashReceived + " but amount due is " + amount);
@@ -48,13 +73,19 @@ public class CashPaymentServiceImpl implements ICashPaymentService {
         payment.setCar(car);
         payment.setAmount(amount);
         payment.setCashReceived(cashReceived);
-        payment.setPaymentTimestamp(LocalDateTime.now());
+        payment.setPaymentTimestamp(now);
 
         boolean success = processPayment(amount);
         payment.setChangeGiven(success ? cashReceived - amount : 0);
         payment.setSuccessful(success);
 
         CashPayment saved = cashPaymentRepository.save(payment);
+        if (success) {
+            revenueRollupService.record(SettlementTask.PaymentMethod.CASH, car, saved.getPaymentTimestamp(), amount);
+            // Receipt and reconciliation run off the exit path
+            settlementTaskRepository.save(SettlementTask.pending(SettlementTask.PaymentMethod.CASH, saved.getId()));
+        }
+        eventPublisher.publishEvent(new CarStateChangedEvent(car.getLicensePlate()));
 
         if (success) {
             leaveService.leave(car.getLicensePlate());
@@ -84,22 +115,22 @@ public class CashPaymentServiceImpl implements ICashPaymentService {
     }
 
     @Override
-    public CashPayment getPaymentById(Long id) {
-        return cashPaymentRepository.findById(id)
+    public CashPaymentView getPaymentById(Long id) {
+        return cashPaymentRepository.findViewById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Cash payment not found: " + id));
     }
 
     @Override
-    public List<CashPayment> getPaymentsByCarId(Long carId) {
-        return cashPaymentRepository.findByCarId(carId);
+    public List<CashPaymentView> getPaymentsByCarId(Long carId) {
+        return cashPaymentRepository.findViewsByCarId(carId);
     }
 
     @Override
-    public List<CashPayment> getPaymentsByDateRange(LocalDateTime start, LocalDateTime end) {
+    public List<CashPaymentView> getPaymentsByDateRange(LocalDateTime start, LocalDateTime end) {
         if (start.isAfter(end)) {
             throw new InvalidDateRangeException("Start time must be before end time");
         }
-        return cashPaymentRepository.findByPaymentTimestampBetween(start, end);
+        return cashPaymentRepository.findViewsByPaymentTimestampBetween(start, end);
     }
 }
 
@@ -0,0 +1,120 @@
+package com.parking.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for large numbers of coarse-grained expiries.
+ * Scheduling and cancelling are O(1); each tick only visits the one bucket whose slot is due,
+ * so the cost of expiry does not grow with the total number of pending items. Scheduling and the
+ * tick's sweep of its bucket share one lock, so an item can never land in a bucket after that bucket's
+ * sweep for its deadline; expiry callbacks run outside the lock.
+ *
+ * @param <T> the item handed to the expiry callback
+ */
+@Slf4j
+public class ExpiryWheel<T> {
+
+    private final String name;
+    private final long tickMillis;
+    private final Queue<Entry<T>>[] buckets;
+    private final Consumer<T> onExpire;
+    private final ScheduledExecutorService ticker;
+    private final Object lock = new Object();
+    // Guarded by lock, as are the buckets
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public ExpiryWheel(String name, Duration tick, int wheelSize, Consumer<T> onExpire) {
+        this.name = name;
+        this.tickMillis = Math.max(1, tick.toMillis());
+        this.buckets = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.onExpire = onExpire;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Schedules {@code item} to expire after {@code delay}; the returned handle can cancel it. */
+    public Timeout schedule(T item, Duration delay) {
+        long delayTicks = ceilDiv(Math.max(0, delay.toMillis()), tickMillis);
+        synchronized (lock) {
+            // +1 covers the partially elapsed current tick, so items never expire early
+            long deadlineTick = currentTick + delayTicks + 1;
+            Entry<T> entry = new Entry<>(item, deadlineTick);
+            buckets[(int) (deadlineTick % buckets.length)].add(entry);
+            return entry;
+        }
+    }
+
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    private void advance() {
+        List<Entry<T>> due = new ArrayList<>();
+        synchronized (lock) {
+            long tick = ++currentTick;
+            Iterator<Entry<T>> it = buckets[(int) (tick % buckets.length)].iterator();
+            while (it.hasNext()) {
+                Entry<T> entry = it.next();
+                if (entry.cancelled) {
+                    it.remove();
+                } else if (entry.deadlineTick <= tick) {
+                    it.remove();
+                    due.add(entry);
+                }
+            }
+        }
+        for (Entry<T> entry : due) {
+            if (entry.cancelled) continue;
+            try {
+                onExpire.accept(entry.item);
+            } catch (Exception e) {
+                log.warn("[ExpiryWheel:{}] Expiry callback failed: {}", name, e.getMessage(), e);
+            }
+        }
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+
+    // ─── Types ───────────────────────────────────────────────────────────────────
+
+    public interface Timeout {
+        void cancel();
+    }
+
+    private static final class Entry<T> implements Timeout {
+        private final T item;
+        private final long deadlineTick;
+        private volatile boolean cancelled;
+
+        private Entry(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.parking.service;
+
+import com.parking.repository.ParkingLotRepository;
+import com.parking.repository.ParkingSpotRepository;
+import com.parking.repository.SpotStateView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory index of free parking spots, partitioned per level and grouped per lot and spot type.
+ * Warmed once from the database, then kept current by the park / leave occupancy events,
+ * so allocating a spot never has to query the parking_spots table.
+ * Only lots this node owns (see LotOwnership) are indexed; in a cluster every lot has exactly one index.
+ */
+@Slf4j
+@Component
+public class FreeSpotIndex {
+
+    private static final LevelSlab[] NO_SLABS = new LevelSlab[0];
+
+    private final ParkingSpotRepository parkingSpotRepository;
+    private final ParkingLotRepository parkingLotRepository;
+    private final LotOwnership lotOwnership;
+
+    private volatile Snapshot snapshot;
+
+    public FreeSpotIndex(ParkingSpotRepository parkingSpotRepository,
+                         ParkingLotRepository parkingLotRepository,
+                         LotOwnership lotOwnership) {
+        this.parkingSpotRepository = parkingSpotRepository;
+        this.parkingLotRepository = parkingLotRepository;
+        this.lotOwnership = lotOwnership;
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    /** Reloads every owned level from the database and atomically swaps in the new index. */
+    public synchronized void rebuild() {
+        List<Long> lotIds = parkingLotRepository.findAllIds().stream()
+                .filter(lotOwnership::owns)
+                .toList();
+        List<SpotStateView> states;
+        if (!lotOwnership.isClustered()) {
+            states = parkingSpotRepository.findAllSpotStates();
+        } else if (lotIds.isEmpty()) {
+            states = List.of();
+        } else {
+            states = parkingSpotRepository.findSpotStatesByParkingLotIdIn(lotIds);
+        }
+        List<LevelSlab> slabs = toSlabs(states);
+
+        snapshot = new Snapshot(slabs, lotIds);
+        log.info("[FreeSpotIndex] Indexed {} spot(s) across {} level(s) in {} lot(s), {} free.",
+                states.size(), slabs.size(), lotIds.size(), slabs.stream().mapToInt(LevelSlab::freeCount).sum());
+    }
+
+    /**
+     * Loads (or reloads) one lot's levels and swaps them into the index, leaving every other
+     * level's slab – and the claims and holds recorded in it – untouched. Lots owned by another node are skipped.
+     */
+    public synchronized void loadLot(Long parkingLotId) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return; // not warmed yet; the full rebuild will pick the lot up
+        }
+        if (!lotOwnership.owns(parkingLotId)) {
+            return;
+        }
+
+        List<SpotStateView> states = parkingSpotRepository.findSpotStatesByParkingLotId(parkingLotId);
+        List<LevelSlab> slabs = new ArrayList<>();
+        for (LevelSlab slab : current.slabs) {
+            if (!parkingLotId.equals(slab.parkingLotId)) {
+                slabs.add(slab);
+            }
+        }
+        List<LevelSlab> loaded = toSlabs(states);
+        slabs.addAll(loaded);
+        slabs.sort(Comparator.comparing((LevelSlab slab) -> slab.parkingLotId));
+        Set<Long> lotIds = new LinkedHashSet<>(current.byLot.keySet());
+        lotIds.add(parkingLotId);
+
+        snapshot = new Snapshot(slabs, lotIds);
+        log.info("[FreeSpotIndex] Loaded lot {}: {} spot(s) across {} level(s).",
+                parkingLotId, states.size(), loaded.size());
+    }
+
+    /** Claims the lowest-numbered free spot of the given type in any lot. */
+    public Optional<SpotRef> claim(boolean smallCarSpot) {
+        return claim(null, smallCarSpot);
+    }
+
+    /** Claims the lowest-numbered free spot of the given type, optionally restricted to one lot. */
+    public Optional<SpotRef> claim(Long parkingLotId, boolean smallCarSpot) {
+        Snapshot current = current();
+        LevelSlab[] slabs = parkingLotId == null ? current.slabs : current.byLot.getOrDefault(parkingLotId, NO_SLABS);
+        for (LevelSlab slab : slabs) {
+            if (slab.smallCarSpot != smallCarSpot) continue;
+
+            int position = slab.claimFirstFree();
+            if (position >= 0) {
+                return Optional.of(slab.ref(position));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** Whether the lot has been loaded into this index, even if it has no spots. */
+    public boolean hasLot(Long parkingLotId) {
+        return parkingLotId != null && current().byLot.containsKey(parkingLotId);
+    }
+
+    /** The spot the next {@link #claim(boolean)} would hand out, without claiming it. */
+    public Optional<SpotRef> peek(boolean smallCarSpot) {
+        for (LevelSlab slab : current().slabs) {
+            if (slab.smallCarSpot != smallCarSpot) continue;
+
+            int position = slab.firstFree();
+            if (position >= 0) {
+                return Optional.of(slab.ref(position));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** Returns a spot to the free pool. Unknown levels or spots are ignored. */
+    public void release(Long levelId, Long spotId) {
+        LevelSlab slab = slabOrNull(levelId);
+        if (slab != null) {
+            slab.release(spotId);
+        }
+    }
+
+    /**
+     * Occupancy bitmaps for every level holding spots of the given type, read straight from the index.
+     * Bit {@code i} (little-endian, as in {@link BitSet#toByteArray()}) is set when the spot at
+     * position {@code i} – i.e. spot number {@code firstSpotNumber + i} on a contiguously numbered level –
+     * is occupied or claimed.
+     */
+    public List<LevelOccupancy> occupancy(boolean smallCarSpot) {
+        List<LevelOccupancy> levels = new ArrayList<>();
+        for (LevelSlab slab : current().slabs) {
+            if (slab.smallCarSpot == smallCarSpot) {
+                levels.add(slab.occupancy());
+            }
+        }
+        return levels;
+    }
+
+    // ─── Occupancy events ───────────────────────────────────────────────────────
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCommit(SpotOccupancyEvent event) {
+        // A claim is applied eagerly; only a committed leave frees the spot.
+        if (!event.occupied()) {
+            release(event.levelId(), event.spotId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onRollback(SpotOccupancyEvent event) {
+        // The park never happened – hand the eagerly claimed spot back.
+        // A held spot goes back to its hold instead (SpotHoldService), so its token stays good.
+        if (event.occupied() && event.holdToken() == null) {
+            release(event.levelId(), event.spotId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onLotProvisioned(LotProvisionedEvent event) {
+        loadLot(event.parkingLotId());
+    }
+
+    // ─── Private Helpers ─────────────────────────────────────────────────────────
+
+    // Rows arrive ordered by level, then spot number; each run of one level becomes a slab
+    private static List<LevelSlab> toSlabs(List<SpotStateView> states) {
+        List<LevelSlab> slabs = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= states.size(); i++) {
+            if (i == states.size() || !states.get(i).getLevelId().equals(states.get(start).getLevelId())) {
+                slabs.add(new LevelSlab(states.subList(start, i)));
+                start = i;
+            }
+        }
+        return slabs;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    rebuild();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private LevelSlab slabOrNull(Long levelId) {
+        return levelId == null ? null : current().byLevel.get(levelId);
+    }
+
+    // ─── Types ───────────────────────────────────────────────────────────────────
+
+    /** Identifies a spot handed out by the index. */
+    public record SpotRef(Long spotId, int spotNumber, Long levelId, Long parkingLotId, boolean smallCarSpot) {
+    }
+
+    /** Compact occupancy of one level; {@code occupied} serializes to base64 in JSON. */
+    public record LevelOccupancy(Long levelId, Long parkingLotId, int firstSpotNumber, int spotCount, byte[] occupied) {
+    }
+
+    private static final class Snapshot {
+        private final LevelSlab[] slabs;
+        private final Map<Long, LevelSlab> byLevel = new HashMap<>();
+        // Each lot's slabs in claim order; loaded lots without spots map to an empty array
+        private final Map<Long, LevelSlab[]> byLot = new HashMap<>();
+
+        private Snapshot(List<LevelSlab> slabs, Collection<Long> lotIds) {
+            this.slabs = slabs.toArray(NO_SLABS);
+            Map<Long, List<LevelSlab>> grouped = new HashMap<>();
+            for (Long lotId : lotIds) {
+                grouped.put(lotId, new ArrayList<>());
+            }
+            for (LevelSlab slab : this.slabs) {
+                byLevel.put(slab.levelId, slab);
+                grouped.computeIfAbsent(slab.parkingLotId, id -> new ArrayList<>()).add(slab);
+            }
+            grouped.forEach((lotId, lotSlabs) -> byLot.put(lotId, lotSlabs.toArray(NO_SLABS)));
+        }
+    }
+
+    /**
+     * Free-spot bitmap for one level. Positions follow spot-number order;
+     * {@code lowestFree} guarantees no free bit exists below it, so claims rarely scan.
+     */
+    private static final class LevelSlab {
+        private final Long levelId;
+        private final Long parkingLotId;
+        private final boolean smallCarSpot;
+        private final long[] spotIds;
+        private final int[] spotNumbers;
+        private final long[] sortedIds;
+        private final int[] sortedPositions;
+        private final BitSet free;
+        private int lowestFree;
+
+        private LevelSlab(List<SpotStateView> rows) {
+            SpotStateView first = rows.get(0);
+            this.levelId = first.getLevelId();
+            this.parkingLotId = first.getParkingLotId();
+            this.smallCarSpot = first.getSmallCarSpot();
+
+            int size = rows.size();
+            this.spotIds = new long[size];
+            this.spotNumbers = new int[size];
+            this.free = new BitSet(size);
+            for (int i = 0; i < size; i++) {
+                SpotStateView row = rows.get(i);
+                spotIds[i] = row.getSpotId();
+                spotNumbers[i] = row.getSpotNumber();
+                if (!row.getOccupied() && !row.getReserved()) free.set(i);
+            }
+
+            this.sortedPositions = IntStream.range(0, size)
+                    .boxed()
+                    .sorted(Comparator.comparingLong(i -> spotIds[i]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            this.sortedIds = Arrays.stream(sortedPositions).mapToLong(i -> spotIds[i]).toArray();
+        }
+
+        private synchronized int claimFirstFree() {
+            int position = free.nextSetBit(lowestFree);
+            if (position < 0) {
+                lowestFree = spotIds.length;
+                return -1;
+            }
+            free.clear(position);
+            lowestFree = position + 1;
+            return position;
+        }
+
+        private synchronized int firstFree() {
+            return free.nextSetBit(lowestFree);
+        }
+
+        private synchronized void release(Long spotId) {
+            int position = positionOf(spotId);
+            if (position < 0) return;
+            free.set(position);
+            if (position < lowestFree) lowestFree = position;
+        }
+
+        private synchronized LevelOccupancy occupancy() {
+            BitSet occupied = (BitSet) free.clone();
+            occupied.flip(0, spotIds.length);
+            int firstSpotNumber = spotNumbers.length > 0 ? spotNumbers[0] : 0;
+            return new LevelOccupancy(levelId, parkingLotId, firstSpotNumber, spotIds.length, occupied.toByteArray());
+        }
+
+        private synchronized int freeCount() {
+            return free.cardinality();
+        }
+
+        private int positionOf(Long spotId) {
+            if (spotId == null) return -1;
+            int index = Arrays.binarySearch(sortedIds, spotId);
+            return index < 0 ? -1 : sortedPositions[index];
+        }
+
+        private SpotRef ref(int position) {
+            return new SpotRef(spotIds[position], spotNumbers[position], levelId, parkingLotId, smallCarSpot);
+        }
+    }
+}
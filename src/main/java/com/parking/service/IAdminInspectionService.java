@@ -2,13 +2,17 @@ package com.parking.service;
 
 import com.parking.entity.InspectionRecord;
 import com.parking.entity.InspectionRecord.InspectionStatus;
+import com.parking.repository.InspectionRecordView;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 public interface IAdminInspectionService extends IInspectionService {
     InspectionRecord conductInspection(Long parkingLotId, Long adminId, String notes);
+    List<InspectionRecord> inspectAllLots(Long adminId, String notes);
+    List<InspectionRecord> inspectLots(Long adminId, String notes, Predicate<Long> parkingLotFilter);
     InspectionRecord updateInspection(Long id, InspectionStatus newStatus, String newNotes);
     void deleteInspection(Long id);
-    List<InspectionRecord> getInspectionsByAdmin(Long adminId);
+    List<InspectionRecordView> getInspectionsByAdmin(Long adminId);
 }
 
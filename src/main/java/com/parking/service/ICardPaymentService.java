@@ -1,15 +1,17 @@
 package com.parking.service;
 
 import com.parking.entity.CardPayment;
+import com.parking.repository.CardPaymentView;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ICardPaymentService extends Payment {
     CardPayment processCardPayment(Long carId, double amount, String cardNumber);
-    CardPayment getPaymentById(Long id);
-    CardPayment getPaymentByTransactionId(String transactionId);
-    List<CardPayment> getPaymentsByCarId(Long carId);
-    List<CardPayment> getPaymentsByDateRange(LocalDateTime start, LocalDateTime end);
+    boolean authorize(String idempotencyKey, double amount);
+    CardPaymentView getPaymentById(Long id);
+    CardPaymentView getPaymentByTransactionId(String transactionId);
+    List<CardPaymentView> getPaymentsByCarId(Long carId);
+    List<CardPaymentView> getPaymentsByDateRange(LocalDateTime start, LocalDateTime end);
 }
 
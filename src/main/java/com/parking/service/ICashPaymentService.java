@@ -1,14 +1,15 @@
 package com.parking.service;
 
 import com.parking.entity.CashPayment;
+import com.parking.repository.CashPaymentView;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ICashPaymentService extends Payment {
     CashPayment processCashPayment(Long carId, double amount, double cashReceived);
-    CashPayment getPaymentById(Long id);
-    List<CashPayment> getPaymentsByCarId(Long carId);
-    List<CashPayment> getPaymentsByDateRange(LocalDateTime start, LocalDateTime end);
+    CashPaymentView getPaymentById(Long id);
+    List<CashPaymentView> getPaymentsByCarId(Long carId);
+    List<CashPaymentView> getPaymentsByDateRange(LocalDateTime start, LocalDateTime end);
 }
 
@@ -1,18 +1,17 @@
 package com.parking.service;
 
-import com.parking.entity.InspectionRecord;
 import com.parking.entity.InspectionRecord.InspectionStatus;
+import com.parking.repository.InspectionRecordView;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.function.Consumer;
 
 public interface IInspectionService {
-    List<InspectionRecord> getInspectionsByParkingLot(Long parkingLotId);
-    List<InspectionRecord> getLatestInspections(Long parkingLotId);
-    List<InspectionRecord> getInspectionsByStatus(InspectionStatus status);
-    List<InspectionRecord> getInspectionsByDateRange(LocalDateTime start, LocalDateTime end);
-    InspectionRecord getInspectionById(Long id);
+    InspectionPage getInspectionsByParkingLot(Long parkingLotId, String cursor, int limit);
+    InspectionPage getLatestInspections(Long parkingLotId, int limit);
+    InspectionPage getInspectionsByStatus(InspectionStatus status, String cursor, int limit);
+    InspectionPage getInspectionsByDateRange(LocalDateTime start, LocalDateTime end, String cursor, int limit);
+    void exportInspectionsByParkingLot(Long parkingLotId, Consumer<InspectionRecordView> sink);
+    void exportInspectionsByDateRange(LocalDateTime start, LocalDateTime end, Consumer<InspectionRecordView> sink);
+    InspectionRecordView getInspectionById(Long id);
 }
-
-
-
@@ -1,6 +1,11 @@
 package com.parking.service;
 
+import com.parking.web.dto.BatchItemResult;
+
+import java.util.List;
+
 public interface ILeaveService {
     boolean leave(String licensePlate);
+    List<BatchItemResult> leaveBatch(List<String> licensePlates);
 }
 
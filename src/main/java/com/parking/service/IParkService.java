@@ -1,9 +1,13 @@
 package com.parking.service;
 
 import com.parking.entity.ParkingSpot;
+import com.parking.web.dto.BatchItemResult;
 import com.parking.web.dto.ParkRequest;
 
+import java.util.List;
+
 public interface IParkService {
     ParkingSpot park(ParkRequest request);
+    List<BatchItemResult> parkBatch(List<ParkRequest> requests);
 }
 
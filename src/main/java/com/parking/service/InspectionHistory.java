@@ -0,0 +1,74 @@
+package com.parking.service;
+
+import com.parking.entity.InspectionRecord.InspectionStatus;
+import com.parking.exception.InvalidDateRangeException;
+import com.parking.repository.InspectionRecordRepository;
+import com.parking.repository.InspectionRecordView;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Bounded reads over inspection history shared by the user and admin inspection services.
+ * Pages are keyset queries capped at InspectionPage.MAX_LIMIT rows; exports stream rows from a
+ * server-side cursor, so memory stays flat however long the history is. Both read InspectionRecordView
+ * projections, which are never attached to the persistence context.
+ */
+@Component
+public class InspectionHistory {
+
+    private final InspectionRecordRepository inspectionRecordRepository;
+
+    public InspectionHistory(InspectionRecordRepository inspectionRecordRepository) {
+        this.inspectionRecordRepository = inspectionRecordRepository;
+    }
+
+    public InspectionPage byParkingLot(Long parkingLotId, String cursor, int limit) {
+        InspectionPage.Cursor after = InspectionPage.Cursor.decode(cursor);
+        int size = InspectionPage.limit(limit);
+        return InspectionPage.of(inspectionRecordRepository.findPageByParkingLot(
+                parkingLotId, after.inspectionTime(), after.id(), Limit.of(size + 1)), size);
+    }
+
+    public InspectionPage byStatus(InspectionStatus status, String cursor, int limit) {
+        InspectionPage.Cursor after = InspectionPage.Cursor.decode(cursor);
+        int size = InspectionPage.limit(limit);
+        return InspectionPage.of(inspectionRecordRepository.findPageByStatus(
+                status, after.inspectionTime(), after.id(), Limit.of(size + 1)), size);
+    }
+
+    public InspectionPage byDateRange(LocalDateTime start, LocalDateTime end, String cursor, int limit) {
+        checkRange(start, end);
+        InspectionPage.Cursor after = InspectionPage.Cursor.decode(cursor);
+        int size = InspectionPage.limit(limit);
+        return InspectionPage.of(inspectionRecordRepository.findPageByInspectionTimeBetween(
+                start, end, after.inspectionTime(), after.id(), Limit.of(size + 1)), size);
+    }
+
+    @Transactional
+    public void exportByParkingLot(Long parkingLotId, Consumer<InspectionRecordView> sink) {
+        try (Stream<InspectionRecordView> records = inspectionRecordRepository.streamByParkingLot(parkingLotId)) {
+            records.forEach(sink);
+        }
+    }
+
+    @Transactional
+    public void exportByDateRange(LocalDateTime start, LocalDateTime end, Consumer<InspectionRecordView> sink) {
+        checkRange(start, end);
+        try (Stream<InspectionRecordView> records = inspectionRecordRepository.streamByInspectionTimeBetween(start, end)) {
+            records.forEach(sink);
+        }
+    }
+
+    // ─── Private Helpers ─────────────────────────────────────────────────────────
+
+    private static void checkRange(LocalDateTime start, LocalDateTime end) {
+        if (start.isAfter(end)) {
+            throw new InvalidDateRangeException("Start time must be before end time");
+        }
+    }
+}
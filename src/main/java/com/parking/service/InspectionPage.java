@@ -0,0 +1,59 @@
+package com.parking.service;
+
+import com.parking.exception.InvalidCursorException;
+import com.parking.repository.InspectionRecordView;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * One page of inspection history, newest first, with an opaque cursor for the next page.
+ * Pages are keyset-based on (inspectionTime, id): the next page starts strictly after the last record
+ * returned, so each page is an index range scan no matter how deep into the history it is.
+ */
+public record InspectionPage(List<InspectionRecordView> records, String nextCursor) {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    /** Clamps a requested page size to 1..MAX_LIMIT. */
+    public static int limit(int requested) {
+        return Math.max(1, Math.min(requested, MAX_LIMIT));
+    }
+
+    /** Builds a page from a fetch of up to {@code limit + 1} rows; the extra row only signals that more exist. */
+    public static InspectionPage of(List<InspectionRecordView> fetched, int limit) {
+        if (fetched.size() <= limit) {
+            return new InspectionPage(fetched, null);
+        }
+        List<InspectionRecordView> records = fetched.subList(0, limit);
+        InspectionRecordView last = records.get(limit - 1);
+        return new InspectionPage(records, new Cursor(last.getInspectionTime(), last.getId()).encode());
+    }
+
+    /** Position after which the next page starts; the first page starts after every possible record. */
+    public record Cursor(LocalDateTime inspectionTime, Long id) {
+
+        public static final Cursor FIRST = new Cursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+        public static Cursor decode(String token) {
+            if (token == null || token.isBlank()) return FIRST;
+            try {
+                String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = value.lastIndexOf('|');
+                return new Cursor(LocalDateTime.parse(value.substring(0, separator)),
+                        Long.parseLong(value.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new InvalidCursorException("Invalid cursor: " + token);
+            }
+        }
+
+        public String encode() {
+            String value = inspectionTime + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -4,17 +4,21 @@ import com.parking.entity.Admin;
 import com.parking.entity.InspectionRecord;
 import com.parking.entity.InspectionRecord.InspectionStatus;
 import com.parking.entity.ParkingLot;
-import com.parking.exception.InvalidDateRangeException;
 import com.parking.exception.ResourceNotFoundException;
 import com.parking.repository.AdminRepository;
 import com.parking.repository.InspectionRecordRepository;
+import com.parking.repository.InspectionRecordView;
+import com.parking.repository.LotOccupancyView;
 import com.parking.repository.ParkingLotRepository;
-import com.parking.repository.ParkingSpotRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 @Service
 public class InspectionServiceImpl implements IAdminInspectionService {
@@ -22,20 +26,21 @@ public class InspectionServiceImpl implements IAdminInspectionService {
     private final InspectionRecordRepository inspectionRecordRepository;
     private final ParkingLotRepository parkingLotRepository;
     private final AdminRepository adminRepository;
-    private final ParkingSpotRepository parkingSpotRepository;
+    private final InspectionHistory inspectionHistory;
 
     public InspectionServiceImpl(InspectionRecordRepository inspectionRecordRepository,
                                  ParkingLotRepository parkingLotRepository,
                                  AdminRepository adminRepository,
-                                 ParkingSpotRepository parkingSpotRepository) {
+                                 InspectionHistory inspectionHistory) {
         this.inspectionRecordRepository = inspectionRecordRepository;
         this.parkingLotRepository = parkingLotRepository;
         this.adminRepository = adminRepository;
-        this.parkingSpotRepository = parkingSpotRepository;
+        this.inspectionHistory = inspectionHistory;
     }
 
     // ─── IAdminInspectionService ─────────────────────────────────────────────────
 
+    @Timed(value = "parking.inspection", description = "Conduct a lot inspection")
     @Transactional
     @Override
     public InspectionRecord conductInspection(Long parkingLotId, Long adminId, String notes) {
@@ -45,29 +50,49 @@ public class InspectionServiceImpl implements IAdminInspectionService {
         Admin inspector = adminRepository.findById(adminId)
                 .orElseThrow(() -> new ResourceNotFoundException("Admin not found: " + adminId));
 
-        int totalSpots = parkingSpotRepository.countByParkingLotId(parkingLotId);
-        int occupiedSpots = parkingSpotRepository.countOccupiedByParkingLotId(parkingLotId);
+        LotOccupancyView occupancy = parkingLotRepository.findLotOccupancyById(parkingLotId)
+                .orElseThrow(() -> new ResourceNotFoundException("Parking lot not found: " + parkingLotId));
 
-        int availableSpots = totalSpots - occupiedSpots;
-        InspectionStatus status = determineStatus(totalSpots, occupiedSpots);
+        return inspectionRecordRepository.save(
+                newRecord(parkingLot, inspector, occupancy, LocalDateTime.now(), notes));
+    }
 
-        InspectionRecord record = new InspectionRecord();
-        record.setParkingLot(parkingLot);
-        record.setInspector(inspector);
-        record.setInspectionTime(LocalDateTime.now());
-        record.setTotalSpots(totalSpots);
-        record.setOccupiedSpots(occupiedSpots);
-        record.setAvailableSpots(availableSpots);
-        record.setStatus(status);
-        record.setNotes(notes);
+    /**
+     * Inspects every lot in one pass: spot totals for all lots come from a single grouped query and the
+     * records are written with saveAll, which the pooled ids and hibernate.jdbc.batch_size turn into
+     * batched inserts.
+     */
+    @Timed(value = "parking.inspection.all", description = "Inspect every lot")
+    @Transactional
+    @Override
+    public List<InspectionRecord> inspectAllLots(Long adminId, String notes) {
+        return inspectLots(adminId, notes, parkingLotId -> true);
+    }
 
-        return inspectionRecordRepository.save(record);
+    /** As {@link #inspectAllLots}, limited to the lots whose id passes the filter. */
+    @Timed(value = "parking.inspection.all", description = "Inspect every lot")
+    @Transactional
+    @Override
+    public List<InspectionRecord> inspectLots(Long adminId, String notes, Predicate<Long> parkingLotFilter) {
+        Admin inspector = adminRepository.findById(adminId)
+                .orElseThrow(() -> new ResourceNotFoundException("Admin not found: " + adminId));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<InspectionRecord> records = new ArrayList<>();
+        for (LotOccupancyView occupancy : parkingLotRepository.findLotOccupancy()) {
+            if (!parkingLotFilter.test(occupancy.getParkingLotId())) continue;
+            // Reference only – the lot row itself is never read
+            ParkingLot parkingLot = parkingLotRepository.getReferenceById(occupancy.getParkingLotId());
+            records.add(newRecord(parkingLot, inspector, occupancy, now, notes));
+        }
+        return inspectionRecordRepository.saveAll(records);
     }
 
     @Transactional
     @Override
     public InspectionRecord updateInspection(Long id, InspectionStatus newStatus, String newNotes) {
-        InspectionRecord record = getInspectionById(id);
+        InspectionRecord record = inspectionRecordRepository.findWithLotAndInspectorById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Inspection record not found: " + id));
         if (newStatus != null) record.setStatus(newStatus);
         if (newNotes != null) record.setNotes(newNotes);
         return inspectionRecordRepository.save(record);
@@ -85,41 +110,65 @@ public class InspectionServiceImpl implements IAdminInspectionService {
     // ─── IInspectionService ──────────────────────────────────────────────────────
 
     @Override
-    public List<InspectionRecord> getInspectionsByParkingLot(Long parkingLotId) {
-        return inspectionRecordRepository.findByParkingLotId(parkingLotId);
+    public InspectionPage getInspectionsByParkingLot(Long parkingLotId, String cursor, int limit) {
+        return inspectionHistory.byParkingLot(parkingLotId, cursor, limit);
     }
 
     @Override
-    public List<InspectionRecord> getLatestInspections(Long parkingLotId) {
-        return inspectionRecordRepository.findLatestInspectionsByParkingLot(parkingLotId);
+    public InspectionPage getLatestInspections(Long parkingLotId, int limit) {
+        return inspectionHistory.byParkingLot(parkingLotId, null, limit);
     }
 
     @Override
-    public List<InspectionRecord> getInspectionsByAdmin(Long adminId) {
-        return inspectionRecordRepository.findByInspectorId(adminId);
+    public InspectionPage getInspectionsByStatus(InspectionStatus status, String cursor, int limit) {
+        return inspectionHistory.byStatus(status, cursor, limit);
     }
 
     @Override
-    public List<InspectionRecord> getInspectionsByStatus(InspectionStatus status) {
-        return inspectionRecordRepository.findByStatus(status);
+    public InspectionPage getInspectionsByDateRange(LocalDateTime start, LocalDateTime end, String cursor, int limit) {
+        return inspectionHistory.byDateRange(start, end, cursor, limit);
     }
 
     @Override
-    public List<InspectionRecord> getInspectionsByDateRange(LocalDateTime start, LocalDateTime end) {
-        if (start.isAfter(end)) {
-            throw new InvalidDateRangeException("Start time must be before end time");
-        }
-        return inspectionRecordRepository.findByInspectionTimeBetween(start, end);
+    public void exportInspectionsByParkingLot(Long parkingLotId, Consumer<InspectionRecordView> sink) {
+        inspectionHistory.exportByParkingLot(parkingLotId, sink);
+    }
+
+    @Override
+    public void exportInspectionsByDateRange(LocalDateTime start, LocalDateTime end, Consumer<InspectionRecordView> sink) {
+        inspectionHistory.exportByDateRange(start, end, sink);
     }
 
     @Override
-    public InspectionRecord getInspectionById(Long id) {
-        return inspectionRecordRepository.findById(id)
+    public List<InspectionRecordView> getInspectionsByAdmin(Long adminId) {
+        return inspectionRecordRepository.findViewsByInspectorId(adminId);
+    }
+
+    @Override
+    public InspectionRecordView getInspectionById(Long id) {
+        return inspectionRecordRepository.findViewById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Inspection record not found: " + id));
     }
 
     // ─── Private Helpers ─────────────────────────────────────────────────────────
 
+    private InspectionRecord newRecord(ParkingLot parkingLot, Admin inspector, LotOccupancyView occupancy,
+                                       LocalDateTime inspectionTime, String notes) {
+        int totalSpots = occupancy.getTotalSpots().intValue();
+        int occupiedSpots = occupancy.getOccupiedSpots() != null ? occupancy.getOccupiedSpots().intValue() : 0;
+
+        InspectionRecord record = new InspectionRecord();
+        record.setParkingLot(parkingLot);
+        record.setInspector(inspector);
+        record.setInspectionTime(inspectionTime);
+        record.setTotalSpots(totalSpots);
+        record.setOccupiedSpots(occupiedSpots);
+        record.setAvailableSpots(totalSpots - occupiedSpots);
+        record.setStatus(determineStatus(totalSpots, occupiedSpots));
+        record.setNotes(notes);
+        return record;
+    }
+
     private InspectionStatus determineStatus(int total, int occupied) {
         if (total == 0) return InspectionStatus.FAILED;
         double occupancyRate = (double) occupied / total * 100;
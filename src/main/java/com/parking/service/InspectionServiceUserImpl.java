@@ -1,16 +1,15 @@
 package com.parking.service;
 
-import com.parking.entity.InspectionRecord;
 import com.parking.entity.InspectionRecord.InspectionStatus;
-import com.parking.exception.InvalidDateRangeException;
 import com.parking.exception.ResourceNotFoundException;
 import com.parking.repository.InspectionRecordRepository;
+import com.parking.repository.InspectionRecordView;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 @Qualifier("userInspectionService")
@@ -18,38 +17,47 @@ import java.util.List;
 public class InspectionServiceUserImpl implements IInspectionService {
 
     private final InspectionRecordRepository inspectionRecordRepository;
+    private final InspectionHistory inspectionHistory;
 
-    public InspectionServiceUserImpl(InspectionRecordRepository inspectionRecordRepository) {
+    public InspectionServiceUserImpl(InspectionRecordRepository inspectionRecordRepository,
+                                     InspectionHistory inspectionHistory) {
         this.inspectionRecordRepository = inspectionRecordRepository;
+        this.inspectionHistory = inspectionHistory;
     }
 
     @Override
-    public List<InspectionRecord> getInspectionsByParkingLot(Long parkingLotId) {
-        return inspectionRecordRepository.findByParkingLotId(parkingLotId);
+    public InspectionPage getInspectionsByParkingLot(Long parkingLotId, String cursor, int limit) {
+        return inspectionHistory.byParkingLot(parkingLotId, cursor, limit);
     }
 
     @Override
-    public List<InspectionRecord> getLatestInspections(Long parkingLotId) {
-        return inspectionRecordRepository.findLatestInspectionsByParkingLot(parkingLotId);
+    public InspectionPage getLatestInspections(Long parkingLotId, int limit) {
+        return inspectionHistory.byParkingLot(parkingLotId, null, limit);
     }
 
+    @Override
+    public InspectionPage getInspectionsByStatus(InspectionStatus status, String cursor, int limit) {
+        return inspectionHistory.byStatus(status, cursor, limit);
+    }
+
+    @Override
+    public InspectionPage getInspectionsByDateRange(LocalDateTime start, LocalDateTime end, String cursor, int limit) {
+        return inspectionHistory.byDateRange(start, end, cursor, limit);
+    }
 
     @Override
-    public List<InspectionRecord> getInspectionsByStatus(InspectionStatus status) {
-        return inspectionRecordRepository.findByStatus(status);
+    public void exportInspectionsByParkingLot(Long parkingLotId, Consumer<InspectionRecordView> sink) {
+        inspectionHistory.exportByParkingLot(parkingLotId, sink);
     }
 
     @Override
-    public List<InspectionRecord> getInspectionsByDateRange(LocalDateTime start, LocalDateTime end) {
-        if (start.isAfter(end)) {
-            throw new InvalidDateRangeException("Start time must be before end time");
-        }
-        return inspectionRecordRepository.findByInspectionTimeBetween(start, end);
+    public void exportInspectionsByDateRange(LocalDateTime start, LocalDateTime end, Consumer<InspectionRecordView> sink) {
+        inspectionHistory.exportByDateRange(start, end, sink);
     }
 
     @Override
-    public InspectionRecord getInspectionById(Long id) {
-        return inspectionRecordRepository.findById(id)
+    public InspectionRecordView getInspectionById(Long id) {
+        return inspectionRecordRepository.findViewById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Inspection record not found: " + id));
     }
 }
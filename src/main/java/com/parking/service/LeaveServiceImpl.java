@@ -1,42 +1,102 @@
 package com.parking.service;
 
 import com.parking.entity.Car;
-import com.parking.entity.Level;
 import com.parking.entity.ParkingSpot;
+import com.parking.exception.LotNotOwnedException;
 import com.parking.exception.NotParkedException;
 import com.parking.exception.ResourceNotFoundException;
 import com.parking.repository.CarRepository;
-import com.parking.repository.LevelRepository;
 import com.parking.repository.ParkingSpotRepository;
+import com.parking.web.dto.BatchItemResult;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
 @Service
 public class LeaveServiceImpl implements ILeaveService {
 
     private final CarRepository carRepository;
     private final ParkingSpotRepository parkingSpotRepository;
-    private final LevelRepository levelRepository;
+    private final LotOwnership lotOwnership;
+    private final CarLookupCache carLookupCache;
+    private final ParkingMetrics parkingMetrics;
+    private final ApplicationEventPublisher eventPublisher;
 
     public LeaveServiceImpl(CarRepository carRepository,
                             ParkingSpotRepository parkingSpotRepository,
-                            LevelRepository levelRepository) {
+                            LotOwnership lotOwnership,
+                            CarLookupCache carLookupCache,
+                            ParkingMetrics parkingMetrics,
+                            ApplicationEventPublisher eventPublisher) {
         this.carRepository = carRepository;
         this.parkingSpotRepository = parkingSpotRepository;
-        this.levelRepository = levelRepository;
+        this.lotOwnership = lotOwnership;
+        this.carLookupCache = carLookupCache;
+        this.parkingMetrics = parkingMetrics;
+        this.eventPublisher = eventPublisher;
     }
 
+    @Timed(value = "parking.leave", description = "Release a single car")
     @Transactional
     @Override
     public boolean leave(String licensePlate) {
+        if (carLookupCache.peek(licensePlate).filter(snapshot -> !snapshot.parked()).isPresent()) {
+            throw new NotParkedException("Car is not currently parked: " + licensePlate);
+        }
+
         Car car = carRepository.findByLicensePlate(licensePlate)
                 .orElseThrow(() -> new ResourceNotFoundException("Car not found: " + licensePlate));
+        return leaveCar(car, licensePlate);
+    }
+
+    /**
+     * Releases a burst of cars in one transaction. Cars and their spots are loaded with a single query
+     * and an unknown or not-parked plate (or one parked in a lot served by another node) is reported in its result without affecting the rest.
+     */
+    @Timed(value = "parking.leave.batch", description = "Release a burst of cars")
+    @Transactional
+    @Override
+    public List<BatchItemResult> leaveBatch(List<String> licensePlates) {
+        Map<String, Car> cars = new HashMap<>();
+        for (Car car : carRepository.findByLicensePlateInWithSpot(new HashSet<>(licensePlates))) {
+            cars.putIfAbsent(car.getLicensePlate(), car);
+        }
 
+        List<BatchItemResult> results = new ArrayList<>(licensePlates.size());
+        for (String plate : licensePlates) {
+            try {
+                Car car = cars.get(plate);
+                if (car == null) {
+                    throw new ResourceNotFoundException("Car not found: " + plate);
+                }
+                leaveCar(car, plate);
+                results.add(BatchItemResult.left(plate));
+            } catch (ResourceNotFoundException | NotParkedException | LotNotOwnedException e) {
+                parkingMetrics.rejected(e);
+                results.add(BatchItemResult.failed(plate, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    // Called directly (not through the proxy) so a rejected batch item does not mark the transaction rollback-only
+    private boolean leaveCar(Car car, String licensePlate) {
         if (!car.isParked()) {
             throw new NotParkedException("Car is not currently parked: " + licensePlate);
         }
 
         ParkingSpot spot = car.getParkingSpot();
+        if (spot != null) {
+            // Only the owner may free the spot, so its index and counters see the leave
+            lotOwnership.checkOwned(spot.getLevel().getParkingLot().getId());
+        }
 
         boolean success = car.leave();
         if (!success) {
@@ -45,16 +105,12 @@ public class LeaveServiceImpl implements ILeaveService {
 
         if (spot != null) {
             parkingSpotRepository.save(spot);
-
-            // Keep Level.availableSpots in sync
-            Level level = spot.getLevel();
-            if (level != null) {
-                level.setAvailableSpots(Math.min(level.getTotalSpots(), level.getAvailableSpots() + 1));
-                levelRepository.save(level);
-            }
+            // Frees the spot in the allocator index and the level counters once this transaction commits
+            eventPublisher.publishEvent(SpotOccupancyEvent.of(spot, false));
         }
 
         carRepository.save(car);
+        eventPublisher.publishEvent(new CarStateChangedEvent(licensePlate));
         return true;
     }
 }
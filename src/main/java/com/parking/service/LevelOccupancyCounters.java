@@ -0,0 +1,214 @@
+package com.parking.service;
+
+import com.parking.repository.LevelOccupancyView;
+import com.parking.repository.LevelRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live per-level availability counters.
+ * Park / leave only touch an AtomicInteger per level; the levels.available_spots column is
+ * written behind on a timer and the counters are periodically reconciled against parking_spots.
+ * Spots held by a reservation are unoccupied but not available, so they are counted separately
+ * (SpotHoldService reports reservations made, released and consumed) and left out of every total.
+ * Only the node owning a lot (see LotOwnership) sees its park / leave events, so only the levels of owned
+ * lots are counted: every total here is this node's share of the cluster, and the endpoints that report
+ * cluster-wide availability add the other nodes' shares to it (see PeerClient and PeerStreamRelay).
+ */
+@Slf4j
+@Component
+public class LevelOccupancyCounters {
+
+    private final LevelRepository levelRepository;
+    private final MeterRegistry meterRegistry;
+    private final LotOwnership lotOwnership;
+    private final ConcurrentMap<Long, LevelCounter> counters = new ConcurrentHashMap<>();
+
+    public LevelOccupancyCounters(LevelRepository levelRepository, MeterRegistry meterRegistry,
+                                  LotOwnership lotOwnership) {
+        this.levelRepository = levelRepository;
+        this.meterRegistry = meterRegistry;
+        this.lotOwnership = lotOwnership;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reconcile();
+        flush();
+    }
+
+    /** Resets every owned level's counter to the occupancy recorded in parking_spots. */
+    @Scheduled(initialDelayString = "${parking.counters.reconcile-interval-ms:300000}",
+               fixedDelayString = "${parking.counters.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        int drifted = 0;
+        for (LevelOccupancyView view : levelRepository.findLevelOccupancy()) {
+            if (!lotOwnership.owns(view.getParkingLotId())) continue;
+            int total = view.getTotalSpots().intValue();
+            int available = view.getAvailableSpots() != null ? view.getAvailableSpots().intValue() : 0;
+            int reserved = view.getReservedSpots() != null ? view.getReservedSpots().intValue() : 0;
+
+            LevelCounter counter = counters.computeIfAbsent(view.getLevelId(),
+                    id -> registerGauges(new LevelCounter(id, view.getParkingLotId(), view.getSmallCarLevel())));
+            counter.totalSpots = total;
+            boolean availableDrifted = counter.available.getAndSet(available) != available;
+            if (counter.reserved.getAndSet(reserved) != reserved || availableDrifted) {
+                drifted++;
+            }
+        }
+        if (drifted > 0) {
+            log.info("[LevelOccupancyCounters] Reconciled {} level counter(s) against parking_spots.", drifted);
+        }
+    }
+
+    /** Writes counters that changed since the last flush to levels.available_spots. */
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${parking.counters.flush-interval-ms:5000}")
+    public void flush() {
+        for (LevelCounter counter : counters.values()) {
+            int available = counter.free();
+            if (available == counter.persisted) continue;
+            try {
+                levelRepository.updateAvailableSpots(counter.levelId, available);
+                counter.persisted = available;
+            } catch (Exception e) {
+                log.warn("[LevelOccupancyCounters] Flush of level {} failed: {}", counter.levelId, e.getMessage());
+            }
+        }
+    }
+
+    public int getAvailableSpots(Long levelId) {
+        LevelCounter counter = counters.get(levelId);
+        return counter != null ? counter.free() : 0;
+    }
+
+    public Totals levelTotals(Long levelId) {
+        LevelCounter counter = levelId != null ? counters.get(levelId) : null;
+        return counter != null ? new Totals(counter.free(), counter.totalSpots) : new Totals(0, 0);
+    }
+
+    /** Sums available and total spots over every owned level of one type; cost grows with levels, not spots. */
+    public Totals totals(boolean smallCarLevel) {
+        int available = 0;
+        int total = 0;
+        for (LevelCounter counter : counters.values()) {
+            if (counter.smallCarLevel != smallCarLevel) continue;
+            available += counter.free();
+            total += counter.totalSpots;
+        }
+        return new Totals(available, total);
+    }
+
+    /** Current counts of every owned level; read by OccupancySampler. */
+    public List<LevelState> levels() {
+        List<LevelState> levels = new ArrayList<>(counters.size());
+        for (LevelCounter counter : counters.values()) {
+            levels.add(new LevelState(counter.levelId, counter.parkingLotId, counter.smallCarLevel,
+                    counter.free(), counter.reserved.get(), counter.totalSpots));
+        }
+        return levels;
+    }
+
+    /** A reservation was made ({@code true}) or released, expired or consumed by a park ({@code false}). */
+    public void reservationChanged(Long levelId, boolean reserved) {
+        LevelCounter counter = levelId != null ? counters.get(levelId) : null;
+        if (counter == null) return; // unknown level – the next reconcile picks it up
+
+        if (reserved) {
+            counter.reserved.incrementAndGet();
+        } else {
+            counter.reserved.updateAndGet(v -> Math.max(0, v - 1));
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCommit(SpotOccupancyEvent event) {
+        LevelCounter counter = event.levelId() != null ? counters.get(event.levelId()) : null;
+        if (counter == null) return; // unknown level – the next reconcile picks it up
+
+        if (event.occupied()) {
+            counter.available.updateAndGet(v -> Math.max(0, v - 1));
+        } else {
+            counter.available.updateAndGet(v -> Math.min(counter.totalSpots, v + 1));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onLotProvisioned(LotProvisionedEvent event) {
+        // Provisioned lots are written straight to the tables; pick up their levels now
+        reconcile();
+    }
+
+    // ─── Private Helpers ─────────────────────────────────────────────────────────
+
+    // Gauges read the live counter on scrape; nothing is pushed on park / leave
+    private LevelCounter registerGauges(LevelCounter counter) {
+        Tags tags = Tags.of(
+                "level", String.valueOf(counter.levelId),
+                "lot", String.valueOf(counter.parkingLotId),
+                "type", counter.smallCarLevel ? "small" : "large");
+        Gauge.builder("parking.level.available", counter, LevelCounter::free)
+                .description("Free spots on the level")
+                .tags(tags)
+                .register(meterRegistry);
+        Gauge.builder("parking.level.occupied", counter, c -> c.totalSpots - c.available.get())
+                .description("Occupied spots on the level")
+                .tags(tags)
+                .register(meterRegistry);
+        return counter;
+    }
+
+    // ─── Types ───────────────────────────────────────────────────────────────────
+
+    public record Totals(int available, int total) {
+        public Totals plus(Totals other) {
+            return new Totals(available + other.available, total + other.total);
+        }
+    }
+
+    /** {@code available} excludes the {@code reserved} spots, which are free but not occupied. */
+    public record LevelState(Long levelId, Long parkingLotId, boolean smallCarLevel, int available, int reserved,
+                             int total) {
+        public int occupied() {
+            return Math.max(0, total - available - reserved);
+        }
+    }
+
+    private static final class LevelCounter {
+        private final Long levelId;
+        private final Long parkingLotId;
+        private final boolean smallCarLevel;
+        // Unoccupied spots, reserved ones included
+        private final AtomicInteger available = new AtomicInteger();
+        private final AtomicInteger reserved = new AtomicInteger();
+        private volatile int totalSpots;
+        private volatile int persisted = -1;
+
+        private LevelCounter(Long levelId, Long parkingLotId, boolean smallCarLevel) {
+            this.levelId = levelId;
+            this.parkingLotId = parkingLotId;
+            this.smallCarLevel = smallCarLevel;
+        }
+
+        private int free() {
+            return Math.max(0, available.get() - reserved.get());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.parking.service;
+
+import com.parking.exception.LotNotOwnedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Decides which instance serves each parking lot.
+ * Lots are spread over the nodes in parking.cluster.nodes with a consistent-hash ring (parking.cluster.virtual-nodes
+ * points per node), so every node computes the same owner without coordination, and adding or removing a node
+ * only moves the lots that hash next to it. The owner is the only node that allocates, frees, samples and
+ * inspects a lot's spots, which keeps its in-memory index authoritative and keeps nodes off each other's
+ * parking_spots rows. With no nodes configured this instance owns every lot.
+ *
+ * <p>Nodes are listed as {@code id=baseUrl} pairs, e.g. {@code 0=http://app-0:8082,1=http://app-1:8082}; the
+ * URL is where requests for that node's lots are redirected and may be omitted ({@code 0,1,2}).
+ */
+@Slf4j
+@Component
+public class LotOwnership {
+
+    private final int nodeId;
+    private final Map<Integer, String> nodeUrls;
+    // Ring points sorted by hash; ringNodes[i] owns the arc ending at ringHashes[i]
+    private final long[] ringHashes;
+    private final int[] ringNodes;
+
+    public LotOwnership(@Value("${parking.cluster.node-id:0}") int nodeId,
+                        @Value("${parking.cluster.nodes:}") String nodes,
+                        @Value("${parking.cluster.virtual-nodes:128}") int virtualNodes) {
+        this.nodeId = nodeId;
+        this.nodeUrls = parseNodes(nodes, nodeId);
+        if (!nodeUrls.containsKey(nodeId)) {
+            throw new IllegalArgumentException("parking.cluster.node-id " + nodeId
+                    + " is not listed in parking.cluster.nodes (" + nodes + ")");
+        }
+
+        int points = Math.max(1, virtualNodes);
+        long[][] ring = new long[nodeUrls.size() * points][];
+        int i = 0;
+        for (int node : nodeUrls.keySet()) {
+            for (int v = 0; v < points; v++) {
+                ring[i++] = new long[]{mix(((long) node << 32) | v), node};
+            }
+        }
+        Arrays.sort(ring, Comparator.comparingLong((long[] point) -> point[0]));
+        this.ringHashes = Arrays.stream(ring).mapToLong(point -> point[0]).toArray();
+        this.ringNodes = Arrays.stream(ring).mapToInt(point -> (int) point[1]).toArray();
+
+        log.info("[LotOwnership] Node {} of {} ({}).", nodeId, nodeUrls.size(),
+                isClustered() ? "lots partitioned by consistent hash" : "standalone, owns every lot");
+    }
+
+    public int nodeId() {
+        return nodeId;
+    }
+
+    public boolean isClustered() {
+        return nodeUrls.size() > 1;
+    }
+
+    /** Every other node of the cluster, by id, with its base URL (blank where none is configured). */
+    public Map<Integer, String> peers() {
+        Map<Integer, String> peers = new TreeMap<>(nodeUrls);
+        peers.remove(nodeId);
+        return peers;
+    }
+
+    /** The node that serves the given lot. */
+    public int ownerOf(Long parkingLotId) {
+        int index = Arrays.binarySearch(ringHashes, mix(parkingLotId ^ 0x5DEECE66DL));
+        if (index < 0) index = -index - 1;
+        return ringNodes[index == ringHashes.length ? 0 : index];
+    }
+
+    public boolean owns(Long parkingLotId) {
+        return !isClustered() || ownerOf(parkingLotId) == nodeId;
+    }
+
+    /** Throws LotNotOwnedException, naming the owner and its URL, when another node serves the lot. */
+    public void checkOwned(Long parkingLotId) {
+        if (owns(parkingLotId)) return;
+        int owner = ownerOf(parkingLotId);
+        throw new LotNotOwnedException(parkingLotId, owner, nodeUrls.get(owner));
+    }
+
+    // ─── Private Helpers ─────────────────────────────────────────────────────────
+
+    private static Map<Integer, String> parseNodes(String nodes, int selfId) {
+        Map<Integer, String> urls = new TreeMap<>();
+        if (nodes == null || nodes.isBlank()) {
+            urls.put(selfId, "");
+            return urls;
+        }
+        for (String node : nodes.split(",")) {
+            String spec = node.trim();
+            if (spec.isEmpty()) continue;
+            int equals = spec.indexOf('=');
+            try {
+                int id = Integer.parseInt((equals < 0 ? spec : spec.substring(0, equals)).trim());
+                String url = equals < 0 ? "" : spec.substring(equals + 1).trim();
+                urls.put(id, url.endsWith("/") ? url.substring(0, url.length() - 1) : url);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid parking.cluster.nodes entry '" + spec
+                        + "', expected id or id=baseUrl", e);
+            }
+        }
+        return urls;
+    }
+
+    // SplitMix64 finalizer: spreads sequential lot and node ids evenly over the ring
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,8 @@
+package com.parking.service;
+
+/**
+ * Published inside the provisioning transaction once a new lot's rows are written.
+ * Listeners pick up the lot after commit instead of waiting for their next reconcile.
+ */
+public record LotProvisionedEvent(Long parkingLotId, int levels, int spots) {
+}
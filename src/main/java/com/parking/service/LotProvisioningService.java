@@ -0,0 +1,227 @@
+package com.parking.service;
+
+import com.parking.exception.DuplicateResourceException;
+import com.parking.repository.ParkingLotRepository;
+import com.parking.web.dto.ProvisionLotRequest;
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates a lot with all of its levels and spots in one transaction, bypassing the JPA cascade.
+ * Spot rows are streamed through PostgreSQL COPY; on other databases (or with COPY disabled) they go
+ * in as multi-row INSERTs. Ids are reserved from the same pooled sequences Hibernate uses, so rows
+ * created here never collide with entities saved later through JPA.
+ */
+@Slf4j
+@Service
+public class LotProvisioningService {
+
+    // Must match allocationSize on the entity @SequenceGenerator mappings
+    private static final int ID_BLOCK = 50;
+    private static final int COPY_CHUNK_BYTES = 64 * 1024;
+
+    private static final String SPOT_COLUMNS = "id, spot_number, is_small_car_spot, is_occupied, level_id";
+    private static final String LEVEL_COLUMNS =
+            "id, level_number, total_spots, available_spots, is_small_car_level, parking_lot_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ParkingLotRepository parkingLotRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean copyEnabled;
+    private final int insertRows;
+
+    public LotProvisioningService(JdbcTemplate jdbcTemplate,
+                                  ParkingLotRepository parkingLotRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${parking.provisioning.copy-enabled:true}") boolean copyEnabled,
+                                  @Value("${parking.provisioning.insert-rows:1000}") int insertRows) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.parkingLotRepository = parkingLotRepository;
+        this.eventPublisher = eventPublisher;
+        this.copyEnabled = copyEnabled;
+        this.insertRows = Math.max(1, insertRows);
+    }
+
+    @Timed(value = "parking.provision", description = "Provision a lot in bulk")
+    @Transactional
+    public ProvisionedLot provision(ProvisionLotRequest request) {
+        if (parkingLotRepository.existsByName(request.getName())) {
+            throw new DuplicateResourceException("Parking lot already exists: " + request.getName());
+        }
+
+        long startNanos = System.nanoTime();
+        List<ProvisionLotRequest.LevelSpec> levels = request.getLevels();
+        int spotCount = levels.stream().mapToInt(ProvisionLotRequest.LevelSpec::getSpotCount).sum();
+        boolean useCopy = copyEnabled && supportsCopy();
+
+        long lotId = allocateIds("parking_lots_seq", 1, useCopy)[0];
+        jdbcTemplate.update("INSERT INTO parking_lots (id, name, location) VALUES (?, ?, ?)",
+                lotId, request.getName(), request.getLocation());
+
+        long[] levelIds = allocateIds("levels_seq", levels.size(), useCopy);
+        insertLevels(lotId, levels, levelIds);
+
+        long[] spotIds = allocateIds("parking_spots_seq", spotCount, useCopy);
+        if (useCopy) {
+            copySpots(levels, levelIds, spotIds);
+        } else {
+            insertSpots(levels, levelIds, spotIds);
+        }
+
+        // Index and counters load the new lot once this commits
+        eventPublisher.publishEvent(new LotProvisionedEvent(lotId, levels.size(), spotCount));
+
+        long elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+        String method = useCopy ? "COPY" : "INSERT";
+        log.info("[LotProvisioningService] Provisioned lot '{}' (id {}) with {} level(s), {} spot(s) via {} in {} ms.",
+                request.getName(), lotId, levels.size(), spotCount, method, elapsedMs);
+        return new ProvisionedLot(lotId, request.getName(), levels.size(), spotCount, method, elapsedMs);
+    }
+
+    // ─── Private Helpers ─────────────────────────────────────────────────────────
+
+    private boolean supportsCopy() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute(
+                (ConnectionCallback<Boolean>) con -> con.isWrapperFor(PGConnection.class)));
+    }
+
+    /**
+     * Reserves {@code count} ids from a pooled sequence. Each nextval hands out the block ending at the
+     * returned value (Hibernate's pooled optimizer reads it the same way), so one call covers 50 rows.
+     */
+    private long[] allocateIds(String sequence, int count, boolean postgres) {
+        int blocks = (count + ID_BLOCK - 1) / ID_BLOCK;
+        List<Long> highs = postgres
+                ? jdbcTemplate.queryForList("SELECT nextval('" + sequence + "') FROM generate_series(1, ?)",
+                        Long.class, blocks)
+                : nextValues(sequence, blocks);
+
+        long[] ids = new long[count];
+        int i = 0;
+        for (long high : highs) {
+            // A fresh sequence starts at 1, which leaves only id 1 in its first block
+            for (long id = Math.max(1, high - ID_BLOCK + 1); id <= high && i < count; id++) {
+                ids[i++] = id;
+            }
+        }
+        if (i < count) {
+            // Only possible when the first block was the short one – top up from one more block
+            long high = nextValues(sequence, 1).get(0);
+            for (long id = high - ID_BLOCK + 1; i < count; id++) {
+                ids[i++] = id;
+            }
+        }
+        return ids;
+    }
+
+    private List<Long> nextValues(String sequence, int blocks) {
+        List<Long> highs = new ArrayList<>(blocks);
+        for (int b = 0; b < blocks; b++) {
+            highs.add(jdbcTemplate.queryForObject("SELECT nextval('" + sequence + "')", Long.class));
+        }
+        return highs;
+    }
+
+    private void insertLevels(long lotId, List<ProvisionLotRequest.LevelSpec> levels, long[] levelIds) {
+        List<Object[]> rows = new ArrayList<>(levels.size());
+        for (int i = 0; i < levels.size(); i++) {
+            ProvisionLotRequest.LevelSpec level = levels.get(i);
+            rows.add(new Object[] {levelIds[i], level.getLevelNumber(), level.getSpotCount(),
+                    level.getSpotCount(), level.isSmallCarLevel(), lotId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO levels (" + LEVEL_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    /** Streams every spot row to the server as COPY CSV, flushing in fixed-size chunks. */
+    private void copySpots(List<ProvisionLotRequest.LevelSpec> levels, long[] levelIds, long[] spotIds) {
+        jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            CopyIn copy = copyManager(con).copyIn(
+                    "COPY parking_spots (" + SPOT_COLUMNS + ") FROM STDIN WITH (FORMAT csv)");
+            try {
+                StringBuilder chunk = new StringBuilder(COPY_CHUNK_BYTES + 128);
+                int next = 0;
+                for (int l = 0; l < levels.size(); l++) {
+                    ProvisionLotRequest.LevelSpec level = levels.get(l);
+                    String tail = "," + level.isSmallCarLevel() + ",false," + levelIds[l] + "\n";
+                    for (int number = 1; number <= level.getSpotCount(); number++) {
+                        chunk.append(spotIds[next++]).append(',').append(number).append(tail);
+                        if (chunk.length() >= COPY_CHUNK_BYTES) {
+                            writeChunk(copy, chunk);
+                        }
+                    }
+                }
+                writeChunk(copy, chunk);
+                return copy.endCopy();
+            } catch (SQLException | RuntimeException e) {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+                throw e;
+            }
+        });
+    }
+
+    /** Fallback for drivers without COPY: multi-row INSERT statements of up to {@code insertRows} spots. */
+    private void insertSpots(List<ProvisionLotRequest.LevelSpec> levels, long[] levelIds, long[] spotIds) {
+        List<Object> args = new ArrayList<>(insertRows * 5);
+        int rows = 0;
+        int next = 0;
+        for (int l = 0; l < levels.size(); l++) {
+            ProvisionLotRequest.LevelSpec level = levels.get(l);
+            for (int number = 1; number <= level.getSpotCount(); number++) {
+                args.add(spotIds[next++]);
+                args.add(number);
+                args.add(level.isSmallCarLevel());
+                args.add(false);
+                args.add(levelIds[l]);
+                if (++rows == insertRows) {
+                    insertSpotRows(args, rows);
+                    args.clear();
+                    rows = 0;
+                }
+            }
+        }
+        if (rows > 0) {
+            insertSpotRows(args, rows);
+        }
+    }
+
+    private void insertSpotRows(List<Object> args, int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO parking_spots (" + SPOT_COLUMNS + ") VALUES ");
+        for (int r = 0; r < rows; r++) {
+            sql.append(r == 0 ? "" : ", ").append("(?, ?, ?, ?, ?)");
+        }
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private static CopyManager copyManager(Connection con) throws SQLException {
+        return con.unwrap(PGConnection.class).getCopyAPI();
+    }
+
+    private static void writeChunk(CopyIn copy, StringBuilder chunk) throws SQLException {
+        if (chunk.isEmpty()) return;
+        byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        chunk.setLength(0);
+    }
+
+    // ─── Types ───────────────────────────────────────────────────────────────────
+
+    public record ProvisionedLot(Long parkingLotId, String name, int levels, int spots, String method, long elapsedMs) {
+    }
+}
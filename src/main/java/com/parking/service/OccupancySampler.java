@@ -0,0 +1,255 @@
+package com.parking.service;
+
+import com.parking.entity.OccupancyRollup;
+import com.parking.exception.InvalidDateRangeException;
+import com.parking.exception.ResourceNotFoundException;
+import com.parking.repository.OccupancyRollupRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-minute occupancy history of every level.
+ * Once a minute the occupied count of each level is copied from LevelOccupancyCounters into a ring of
+ * parking.occupancy.retention-minutes ints per level (a day is 1,440 slots, under 6 KB), so sampling and
+ * history reads never touch parking_spots. Completed buckets of parking.occupancy.bucket-minutes are
+ * compacted into occupancy_rollups (min / max / average), which serve history older than the ring.
+ * Each node samples only the lots it owns (see LotOwnership), so every level has one writer.
+ */
+@Slf4j
+@Component
+public class OccupancySampler {
+
+    private static final int NO_SAMPLE = -1;
+    private static final int MAX_STEP_MINUTES = 1440;
+
+    private final LevelOccupancyCounters levelOccupancyCounters;
+    private final OccupancyRollupRepository occupancyRollupRepository;
+    private final LotOwnership lotOwnership;
+    private final int retentionMinutes;
+    private final int bucketMinutes;
+    private final int rollupRetentionDays;
+    private final ConcurrentMap<Long, Series> series = new ConcurrentHashMap<>();
+
+    public OccupancySampler(LevelOccupancyCounters levelOccupancyCounters,
+                            OccupancyRollupRepository occupancyRollupRepository,
+                            LotOwnership lotOwnership,
+                            @Value("${parking.occupancy.retention-minutes:1440}") int retentionMinutes,
+                            @Value("${parking.occupancy.bucket-minutes:15}") int bucketMinutes,
+                            @Value("${parking.occupancy.rollup-retention-days:90}") int rollupRetentionDays) {
+        this.levelOccupancyCounters = levelOccupancyCounters;
+        this.occupancyRollupRepository = occupancyRollupRepository;
+        this.lotOwnership = lotOwnership;
+        this.retentionMinutes = Math.max(1, retentionMinutes);
+        this.bucketMinutes = Math.max(1, bucketMinutes);
+        this.rollupRetentionDays = rollupRetentionDays;
+    }
+
+    /** Records the current occupied count of every owned level in its ring. */
+    @Scheduled(cron = "${parking.occupancy.sample-cron:0 * * * * *}")
+    public void sample() {
+        long minute = epochMinute(LocalDateTime.now());
+        for (LevelOccupancyCounters.LevelState level : levelOccupancyCounters.levels()) {
+            if (!lotOwnership.owns(level.parkingLotId())) continue;
+            series.computeIfAbsent(level.levelId(), id -> new Series(id, level.parkingLotId(), retentionMinutes))
+                    .record(minute, level.occupied(), level.total());
+        }
+    }
+
+    /** Writes every bucket completed since the last compaction to occupancy_rollups and drops expired rollups. */
+    @PreDestroy
+    @Scheduled(cron = "${parking.occupancy.compact-cron:30 */15 * * * *}")
+    public void compact() {
+        // Start of the bucket that is still filling; everything before it is complete
+        long until = Math.floorDiv(epochMinute(LocalDateTime.now()), bucketMinutes) * bucketMinutes;
+
+        List<OccupancyRollup> rollups = new ArrayList<>();
+        Map<Series, Long> compacted = new HashMap<>();
+        for (Series s : series.values()) {
+            long from = compactionStart(s);
+            if (from >= until) continue;
+            rollups.addAll(s.rollups(from, until, bucketMinutes));
+            compacted.put(s, until);
+        }
+
+        try {
+            occupancyRollupRepository.saveAll(rollups);
+            if (rollupRetentionDays > 0) {
+                occupancyRollupRepository.deleteOlderThan(LocalDateTime.now().minusDays(rollupRetentionDays));
+            }
+        } catch (Exception e) {
+            // Buckets stay in the ring and are retried on the next run while they are still retained
+            log.warn("[OccupancySampler] Compaction failed: {}", e.getMessage());
+            return;
+        }
+        compacted.forEach((s, minute) -> s.compactedUntil = minute);
+        if (!rollups.isEmpty()) {
+            log.debug("[OccupancySampler] Compacted {} occupancy bucket(s).", rollups.size());
+        }
+    }
+
+    /**
+     * Occupied counts of one level in [start, end), averaged per {@code stepMinutes} from the in-memory ring.
+     * The part of the range older than the ring is served from occupancy_rollups at their bucket size.
+     */
+    public History history(Long levelId, LocalDateTime start, LocalDateTime end, int stepMinutes) {
+        if (start.isAfter(end)) {
+            throw new InvalidDateRangeException("Start time must be before end time");
+        }
+        int step = Math.max(1, Math.min(stepMinutes, MAX_STEP_MINUTES));
+        long from = epochMinute(start);
+        long to = epochMinute(end);
+
+        Series s = series.get(levelId);
+        long retainedFrom = s != null ? s.oldestMinute() : to;
+
+        List<Point> points = new ArrayList<>();
+        Long parkingLotId = s != null ? s.parkingLotId : null;
+        int totalSpots = s != null ? s.totalSpots : 0;
+        if (from < retainedFrom) {
+            for (OccupancyRollup rollup : occupancyRollupRepository.findBuckets(
+                    levelId, toLocal(from), toLocal(Math.min(to, retainedFrom)))) {
+                points.add(new Point(rollup.getBucketStart(), rollup.getBucketMinutes(), rollup.getSamples(),
+                        rollup.getMinOccupied(), rollup.getMaxOccupied(), rollup.getAvgOccupied()));
+                from = epochMinute(rollup.getBucketStart()) + rollup.getBucketMinutes();
+                parkingLotId = rollup.getParkingLotId();
+                if (s == null) totalSpots = rollup.getTotalSpots();
+            }
+        }
+        if (s != null) {
+            points.addAll(s.points(from, to, step));
+        } else if (points.isEmpty()) {
+            throw new ResourceNotFoundException("No occupancy history for level: " + levelId);
+        }
+        return new History(levelId, parkingLotId, totalSpots, points);
+    }
+
+    // ─── Private Helpers ─────────────────────────────────────────────────────────
+
+    // First minute not yet in occupancy_rollups; looked up once per level, then tracked in memory
+    private long compactionStart(Series s) {
+        if (s.compactedUntil == Long.MIN_VALUE) {
+            long persisted = occupancyRollupRepository.findTopByLevelIdOrderByBucketStartDesc(s.levelId)
+                    .map(r -> epochMinute(r.getBucketStart()) + r.getBucketMinutes())
+                    .orElse(Long.MIN_VALUE);
+            long firstBucket = Math.floorDiv(s.oldestMinute(), bucketMinutes) * bucketMinutes;
+            s.compactedUntil = Math.max(persisted, firstBucket);
+        }
+        return s.compactedUntil;
+    }
+
+    // LocalDateTime is wall-clock time throughout; UTC only makes the minute arithmetic reversible
+    private static long epochMinute(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static LocalDateTime toLocal(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    // ─── Types ───────────────────────────────────────────────────────────────────
+
+    public record History(Long levelId, Long parkingLotId, int totalSpots, List<Point> points) {
+    }
+
+    /** Occupied spots over the {@code minutes} starting at {@code time}, from {@code samples} per-minute samples. */
+    public record Point(LocalDateTime time, int minutes, int samples, int minOccupied, int maxOccupied,
+                        double avgOccupied) {
+    }
+
+    /** Ring of per-minute samples for one level; slot = epoch minute mod capacity. */
+    private static final class Series {
+        private final Long levelId;
+        private final Long parkingLotId;
+        private final int[] occupied;
+        private long newestMinute = Long.MIN_VALUE;
+        private volatile int totalSpots;
+        // Only touched by compact()
+        private long compactedUntil = Long.MIN_VALUE;
+
+        private Series(Long levelId, Long parkingLotId, int capacity) {
+            this.levelId = levelId;
+            this.parkingLotId = parkingLotId;
+            this.occupied = new int[capacity];
+            Arrays.fill(occupied, NO_SAMPLE);
+        }
+
+        private synchronized void record(long minute, int value, int total) {
+            if (newestMinute != Long.MIN_VALUE && minute <= newestMinute - occupied.length) return;
+            if (newestMinute != Long.MIN_VALUE && minute > newestMinute) {
+                // Minutes skipped since the last sample (paused or overloaded scheduler) hold no data
+                for (long m = Math.max(newestMinute + 1, minute - occupied.length + 1); m < minute; m++) {
+                    occupied[slot(m)] = NO_SAMPLE;
+                }
+            }
+            occupied[slot(minute)] = value;
+            newestMinute = Math.max(newestMinute, minute);
+            totalSpots = total;
+        }
+
+        private synchronized long oldestMinute() {
+            return newestMinute == Long.MIN_VALUE ? Long.MAX_VALUE : newestMinute - occupied.length + 1;
+        }
+
+        private synchronized List<Point> points(long from, long to, int step) {
+            List<Point> points = new ArrayList<>();
+            // Aligned to the step so the same range always yields the same buckets
+            long first = Math.floorDiv(Math.max(from, oldestMinute()), step) * step;
+            long last = Math.min(to, newestMinute + 1);
+            for (long bucket = first; bucket < last; bucket += step) {
+                Point point = aggregate(bucket, Math.min(bucket + step, last), step);
+                if (point != null) points.add(point);
+            }
+            return points;
+        }
+
+        private synchronized List<OccupancyRollup> rollups(long from, long to, int bucketMinutes) {
+            List<OccupancyRollup> rollups = new ArrayList<>();
+            for (long bucket = from; bucket < to; bucket += bucketMinutes) {
+                Point point = aggregate(bucket, Math.min(bucket + bucketMinutes, to), bucketMinutes);
+                if (point == null) continue;
+                rollups.add(new OccupancyRollup(null, levelId, parkingLotId, point.time(), bucketMinutes,
+                        point.samples(), point.minOccupied(), point.maxOccupied(), point.avgOccupied(), totalSpots));
+            }
+            return rollups;
+        }
+
+        // Samples in [from, to) that are still in the ring, or null when there are none
+        private Point aggregate(long from, long to, int minutes) {
+            int samples = 0;
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            long sum = 0;
+            for (long m = Math.max(from, oldestMinute()); m < to && m <= newestMinute; m++) {
+                int value = occupied[slot(m)];
+                if (value == NO_SAMPLE) continue;
+                samples++;
+                sum += value;
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            return samples == 0 ? null
+                    : new Point(toLocal(from), minutes, samples, min, max, round((double) sum / samples));
+        }
+
+        private int slot(long minute) {
+            return (int) Math.floorMod(minute, (long) occupied.length);
+        }
+    }
+}
@@ -1,70 +1,307 @@
 package com.parking.service;
 
 import com.parking.entity.Car;
-import com.parking.entity.Level;
 import com.parking.entity.LargeCar;
 import com.parking.entity.ParkingSpot;
 import com.parking.entity.SmallCar;
 import com.parking.exception.AlreadyParkedException;
+import com.parking.exception.LotNotOwnedException;
 import com.parking.exception.NoAvailableSpotException;
+import com.parking.exception.ResourceNotFoundException;
 import com.parking.repository.CarRepository;
-import com.parking.repository.LevelRepository;
 import com.parking.repository.ParkingSpotRepository;
 import com.parking.web.dto.ParkRequest;
+import com.parking.web.dto.BatchItemResult;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class ParkServiceImpl implements IParkService {
 
+    private static final int MAX_CLAIM_ATTEMPTS = 5;
+
     private final CarRepository carRepository;
     private final ParkingSpotRepository parkingSpotRepository;
-    private final LevelRepository levelRepository;
+    private final FreeSpotIndex freeSpotIndex;
+    private final LotOwnership lotOwnership;
+    private final SpotHoldService spotHoldService;
+    private final CarLookupCache carLookupCache;
+    private final ParkingMetrics parkingMetrics;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ParkServiceImpl(CarRepository carRepository,
                            ParkingSpotRepository parkingSpotRepository,
-                           LevelRepository levelRepository) {
+                           FreeSpotIndex freeSpotIndex,
+                           LotOwnership lotOwnership,
+                           SpotHoldService spotHoldService,
+                           CarLookupCache carLookupCache,
+                           ParkingMetrics parkingMetrics,
+                           ApplicationEventPublisher eventPublisher) {
         this.carRepository = carRepository;
         this.parkingSpotRepository = parkingSpotRepository;
-        this.levelRepository = levelRepository;
+        this.freeSpotIndex = freeSpotIndex;
+        this.lotOwnership = lotOwnership;
+        this.spotHoldService = spotHoldService;
+        this.carLookupCache = carLookupCache;
+        this.parkingMetrics = parkingMetrics;
+        this.eventPublisher = eventPublisher;
     }
 
+    @Timed(value = "parking.park", description = "Park a single car")
     @Transactional
     @Override
     public ParkingSpot park(ParkRequest request) {
+        // A lot is allocated only by its owner; the handler redirects the gate there
+        if (request.getParkingLotId() != null) {
+            lotOwnership.checkOwned(request.getParkingLotId());
+        }
+        // So is a hold: a token issued by another node is redirected there
+        spotHoldService.checkRedeemable(request.getHoldToken());
+        // Repeated gate retries for a car that is already in are turned away without a query
+        if (carLookupCache.peek(request.getLicensePlate()).filter(CarLookupCache.CarSnapshot::parked).isPresent()) {
+            throw new AlreadyParkedException("Car is already parked: " + request.getLicensePlate());
+        }
+
         Car car = carRepository.findByLicensePlate(request.getLicensePlate())
                 .orElseGet(() -> createCar(request));
+        return parkCar(car, request);
+    }
+
+    /**
+     * Parks a burst of cars in one transaction. Known cars are loaded with a single query, the spots for
+     * the whole burst are claimed with one set-based UPDATE (see {@link #claimSpots}), and a rejected item
+     * (already parked, lot full, lot or hold served by another node) is reported in its result without affecting the rest.
+     */
+    @Timed(value = "parking.park.batch", description = "Park a burst of cars")
+    @Transactional
+    @Override
+    public List<BatchItemResult> parkBatch(List<ParkRequest> requests) {
+        Set<String> plates = requests.stream().map(ParkRequest::getLicensePlate).collect(Collectors.toSet());
+        Map<String, Car> cars = new HashMap<>();
+        for (Car car : carRepository.findByLicensePlateInWithSpot(plates)) {
+            cars.putIfAbsent(car.getLicensePlate(), car);
+        }
+
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        List<BatchItem> items = new ArrayList<>(requests.size());
+        Set<Car> entering = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < requests.size(); i++) {
+            ParkRequest request = requests.get(i);
+            String plate = request.getLicensePlate();
+            try {
+                if (request.getParkingLotId() != null) {
+                    lotOwnership.checkOwned(request.getParkingLotId());
+                }
+                spotHoldService.checkRedeemable(request.getHoldToken());
+                Car car = cars.computeIfAbsent(plate, p -> createCar(request));
+                // A plate repeated within the burst is already parked by its first occurrence
+                if (car.isParked() || !entering.add(car)) {
+                    throw new AlreadyParkedException("Car is already parked: " + plate);
+                }
+                items.add(new BatchItem(i, request, car));
+            } catch (AlreadyParkedException | LotNotOwnedException | ResourceNotFoundException e) {
+                parkingMetrics.rejected(e);
+                results[i] = BatchItemResult.failed(plate, e.getMessage());
+            }
+        }
+
+        claimSpots(items);
+        for (BatchItem item : items) {
+            String plate = item.request.getLicensePlate();
+            try {
+                if (item.spot == null) {
+                    throw item.failure;
+                }
+                bind(item.car, item.spot);
+                results[item.index] = BatchItemResult.parked(plate, item.spot);
+            } catch (NoAvailableSpotException e) {
+                parkingMetrics.rejected(e);
+                results[item.index] = BatchItemResult.failed(plate, e.getMessage());
+            }
+        }
+        return List.of(results);
+    }
 
+    private ParkingSpot parkCar(Car car, ParkRequest request) {
         if (car.isParked()) {
             throw new AlreadyParkedException("Car is already parked: " + request.getLicensePlate());
         }
 
         boolean isSmall = car instanceof SmallCar;
-        List<ParkingSpot> available = parkingSpotRepository.findAvailableSpotsByTypeWithLevel(isSmall);
-
-        if (available.isEmpty()) {
-            throw new NoAvailableSpotException("No available spot for " + (isSmall ? "small" : "large") + " car");
-        }
+        ParkingSpot spot = claimSpot(isSmall, request.getParkingLotId(), request.getHoldToken());
+        bind(car, spot);
+        return spot;
+    }
 
-        ParkingSpot spot = available.get(0);
-        boolean success = car.park(spot);
+    private void bind(Car car, ParkingSpot spot) {
+        boolean success = car.parkInClaimedSpot(spot);
         if (!success) {
             throw new NoAvailableSpotException("Car refused to park into spot: " + spot.getId());
         }
 
-        parkingSpotRepository.save(spot);
+        // Level.availableSpots is maintained by LevelOccupancyCounters once this commits
         carRepository.save(car);
+        eventPublisher.publishEvent(new CarStateChangedEvent(car.getLicensePlate()));
+    }
 
-        // Keep Level.availableSpots in sync
-        Level level = spot.getLevel();
-        if (level != null) {
-            level.setAvailableSpots(Math.max(0, level.getAvailableSpots() - 1));
-            levelRepository.save(level);
+    /**
+     * Takes the held spot (if a valid hold token was given) or the next free spot from the in-memory index,
+     * restricted to {@code parkingLotId} when one is given, and claims its row with a conditional UPDATE
+     * so two gates can never be handed the same spot.
+     * A spot lost to another transaction (or one the index still believed free) stays out of the pool
+     * and the next candidate is tried, up to {@link #MAX_CLAIM_ATTEMPTS} times.
+     */
+    private ParkingSpot claimSpot(boolean isSmall, Long parkingLotId, String holdToken) {
+        ParkingSpot held = claimHeld(isSmall, holdToken);
+        if (held != null) {
+            return held;
         }
 
-        return spot;
+        loadLotIfMissing(parkingLotId);
+        for (int attempt = 1; attempt <= MAX_CLAIM_ATTEMPTS; attempt++) {
+            FreeSpotIndex.SpotRef ref = freeSpotIndex.claim(parkingLotId, isSmall)
+                    .orElseThrow(() -> noSpot(isSmall, parkingLotId));
+
+            ParkingSpot spot = tryClaim(ref, null);
+            if (spot != null) {
+                return spot;
+            }
+        }
+        throw claimFailed(isSmall, parkingLotId);
+    }
+
+    /**
+     * Batch form of {@link #claimSpot}. Held spots are claimed one by one; every other item takes a candidate
+     * from the index and all candidates are claimed with one set-based UPDATE. Items whose candidate was
+     * lost get a new one, for up to {@link #MAX_CLAIM_ATTEMPTS} rounds, and the won rows are then loaded
+     * with one query. Sets either {@code spot} or {@code failure} on every item.
+     */
+    private void claimSpots(List<BatchItem> items) {
+        List<BatchItem> unclaimed = new ArrayList<>();
+        for (BatchItem item : items) {
+            item.spot = claimHeld(item.small, item.request.getHoldToken());
+            if (item.spot == null) {
+                loadLotIfMissing(item.request.getParkingLotId());
+                unclaimed.add(item);
+            }
+        }
+
+        Map<Long, BatchItem> won = new HashMap<>();
+        for (int attempt = 1; attempt <= MAX_CLAIM_ATTEMPTS && !unclaimed.isEmpty(); attempt++) {
+            Map<Long, BatchItem> candidates = new LinkedHashMap<>();
+            for (BatchItem item : unclaimed) {
+                Long parkingLotId = item.request.getParkingLotId();
+                Optional<FreeSpotIndex.SpotRef> ref = freeSpotIndex.claim(parkingLotId, item.small);
+                if (ref.isEmpty()) {
+                    item.failure = noSpot(item.small, parkingLotId);
+                    continue;
+                }
+                item.ref = ref.get();
+                candidates.put(item.ref.spotId(), item);
+            }
+
+            unclaimed = new ArrayList<>();
+            if (candidates.isEmpty()) break;
+            Set<Long> claimed;
+            try {
+                claimed = new HashSet<>(parkingSpotRepository.claimAllIfFree(candidates.keySet()));
+            } catch (RuntimeException e) {
+                // The failed UPDATE rolls the transaction back; hand this round's candidates back with it
+                for (BatchItem item : candidates.values()) {
+                    eventPublisher.publishEvent(SpotOccupancyEvent.of(item.ref, true));
+                }
+                throw e;
+            }
+            for (BatchItem item : candidates.values()) {
+                if (claimed.contains(item.ref.spotId())) {
+                    // Rolls the claim back into the index if this transaction does not commit
+                    eventPublisher.publishEvent(SpotOccupancyEvent.of(item.ref, true));
+                    won.put(item.ref.spotId(), item);
+                } else {
+                    unclaimed.add(item); // the lost spot stays out of the pool
+                }
+            }
+        }
+        for (BatchItem item : unclaimed) {
+            item.failure = claimFailed(item.small, item.request.getParkingLotId());
+        }
+
+        if (!won.isEmpty()) {
+            for (ParkingSpot spot : parkingSpotRepository.findWithLevelByIdIn(won.keySet())) {
+                won.get(spot.getId()).spot = spot;
+            }
+        }
+    }
+
+    // The spot held under the token, or null when there is no usable hold
+    private ParkingSpot claimHeld(boolean isSmall, String holdToken) {
+        FreeSpotIndex.SpotRef heldRef = spotHoldService.redeem(holdToken, isSmall).orElse(null);
+        if (heldRef == null) {
+            return null;
+        }
+        ParkingSpot held = tryClaim(heldRef, holdToken);
+        if (held == null) {
+            // Taken outside the hold; the hold is void and the spot stays out of the pool
+            spotHoldService.discard(holdToken);
+        }
+        return held;
+    }
+
+    private void loadLotIfMissing(Long parkingLotId) {
+        if (parkingLotId != null && !freeSpotIndex.hasLot(parkingLotId)) {
+            // Provisioned through another node, so this index has not seen it yet
+            freeSpotIndex.loadLot(parkingLotId);
+        }
+    }
+
+    /** Claims the spot's row; returns null if another transaction or reservation already holds it. */
+    private ParkingSpot tryClaim(FreeSpotIndex.SpotRef ref, String reservationToken) {
+        int claimed;
+        try {
+            claimed = parkingSpotRepository.claimIfFree(ref.spotId(), reservationToken);
+        } catch (RuntimeException e) {
+            // The failed UPDATE rolls the transaction back; hand the index claim (or the hold) back with it
+            eventPublisher.publishEvent(SpotOccupancyEvent.of(ref, true, reservationToken));
+            throw e;
+        }
+        if (claimed != 1) {
+            return null;
+        }
+        // Rolls the claim back into the index (or the hold) if this transaction does not commit
+        eventPublisher.publishEvent(SpotOccupancyEvent.of(ref, true, reservationToken));
+        return parkingSpotRepository.findById(ref.spotId())
+                .orElseThrow(() -> new NoAvailableSpotException("Claimed spot disappeared: " + ref.spotId()));
+    }
+
+    private static NoAvailableSpotException noSpot(boolean isSmall, Long parkingLotId) {
+        return new NoAvailableSpotException("No available spot for " + type(isSmall) + " car" + where(parkingLotId));
+    }
+
+    private static NoAvailableSpotException claimFailed(boolean isSmall, Long parkingLotId) {
+        return new NoAvailableSpotException("Could not claim a " + type(isSmall) + " spot" + where(parkingLotId)
+                + " after " + MAX_CLAIM_ATTEMPTS + " attempts");
+    }
+
+    private static String type(boolean isSmall) {
+        return isSmall ? "small" : "large";
+    }
+
+    private static String where(Long parkingLotId) {
+        return parkingLotId != null ? " in lot " + parkingLotId : "";
     }
 
     private Car createCar(ParkRequest request) {
@@ -83,4 +320,24 @@ public class ParkServiceImpl implements IParkService {
             );
         };
     }
+
+    // ─── Types ───────────────────────────────────────────────────────────────────
+
+    /** One accepted item of a park batch and the spot (or failure) it ends up with. */
+    private static final class BatchItem {
+        private final int index;
+        private final ParkRequest request;
+        private final Car car;
+        private final boolean small;
+        private FreeSpotIndex.SpotRef ref;
+        private ParkingSpot spot;
+        private NoAvailableSpotException failure;
+
+        private BatchItem(int index, ParkRequest request, Car car) {
+            this.index = index;
+            this.request = request;
+            this.car = car;
+            this.small = car instanceof SmallCar;
+        }
+    }
 }
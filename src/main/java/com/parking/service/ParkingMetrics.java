@@ -0,0 +1,22 @@
+package com.parking.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counters for requests the lot turns away (lot full, already parked, not parked).
+ * Fed from the API error handler and from batch items that fail individually.
+ */
+@Component
+public class ParkingMetrics {
+
+    private final MeterRegistry registry;
+
+    public ParkingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void rejected(RuntimeException e) {
+        registry.counter("parking.rejections", "exception", e.getClass().getSimpleName()).increment();
+    }
+}
@@ -0,0 +1,305 @@
+package com.parking.service;
+
+import com.parking.config.ParkingExecutors;
+import com.parking.entity.CardPayment;
+import com.parking.entity.CashPayment;
+import com.parking.entity.SettlementTask;
+import com.parking.exception.ResourceNotFoundException;
+import com.parking.repository.CardPaymentRepository;
+import com.parking.repository.CashPaymentRepository;
+import com.parking.repository.SettlementTaskRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Drains the settlement_tasks outbox off the exit path.
+ * Payments and exits commit with only an outbox row; a poller locks due rows with SKIP LOCKED, leases them
+ * and hands them to a bounded worker pool, which authorizes card payments, issues the receipt and
+ * reconciles the amounts. Failures are retried with exponential backoff until max-attempts, and a lease
+ * that runs out (worker or instance died) makes the task due again.
+ */
+@Slf4j
+@Service
+public class PaymentSettlementService {
+
+    private final SettlementTaskRepository settlementTaskRepository;
+    private final CardPaymentRepository cardPaymentRepository;
+    private final CashPaymentRepository cashPaymentRepository;
+    private final ICardPaymentService cardPaymentService;
+    private final RevenueRollupService revenueRollupService;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    private final Semaphore slots;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration lease;
+
+    public PaymentSettlementService(SettlementTaskRepository settlementTaskRepository,
+                                    CardPaymentRepository cardPaymentRepository,
+                                    CashPaymentRepository cashPaymentRepository,
+                                    ICardPaymentService cardPaymentService,
+                                    RevenueRollupService revenueRollupService,
+                                    MeterRegistry meterRegistry,
+                                    PlatformTransactionManager transactionManager,
+                                    ParkingExecutors parkingExecutors,
+                                    @Value("${parking.settlement.workers:4}") int workerCount,
+                                    @Value("${parking.settlement.batch-size:50}") int batchSize,
+                                    @Value("${parking.settlement.max-attempts:8}") int maxAttempts,
+                                    @Value("${parking.settlement.backoff-ms:1000}") long backoffMs,
+                                    @Value("${parking.settlement.lease-seconds:60}") long leaseSeconds) {
+        this.settlementTaskRepository = settlementTaskRepository;
+        this.cardPaymentRepository = cardPaymentRepository;
+        this.cashPaymentRepository = cashPaymentRepository;
+        this.cardPaymentService = cardPaymentService;
+        this.revenueRollupService = revenueRollupService;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = parkingExecutors.newWorkerPool("settlement", workerCount);
+        // Bounds in-flight settlements in both modes; a virtual-thread pool has no size of its own
+        this.slots = new Semaphore(Math.max(1, workerCount));
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoff = Duration.ofMillis(backoffMs);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+
+        Gauge.builder("parking.settlement.pending", settlementTaskRepository,
+                        repository -> repository.countByStatus(SettlementTask.Status.PENDING))
+                .description("Settlement tasks waiting for a worker")
+                .register(meterRegistry);
+    }
+
+    /** Leases as many due tasks as there are free workers and dispatches them. */
+    @Scheduled(fixedDelayString = "${parking.settlement.poll-interval-ms:500}")
+    public void poll() {
+        int free = slots.availablePermits();
+        if (free == 0) return;
+
+        List<Lease> leased = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime until = leaseFrom(now);
+            List<SettlementTask> due = settlementTaskRepository.lockDue(now, Math.min(free, batchSize));
+            for (SettlementTask task : due) {
+                task.setStatus(SettlementTask.Status.IN_PROGRESS);
+                task.setNextAttemptAt(until);
+            }
+            return due.stream().map(task -> new Lease(task, until)).toList();
+        });
+
+        for (Lease lease : leased) {
+            slots.acquireUninterruptibly();
+            try {
+                workers.execute(() -> {
+                    try {
+                        settle(lease);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Shutting down – the lease runs out and another poll picks the task up
+                slots.release();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+
+    // ─── Settlement ──────────────────────────────────────────────────────────────
+
+    /*
+     * The lease (next_attempt_at of an IN_PROGRESS task) doubles as a fencing token: every write first locks
+     * the task row and checks that it still carries this worker's lease. A worker whose lease ran out and was
+     * taken over by another poll therefore changes nothing. Card authorization is an external call, so it runs
+     * outside any transaction, right after the lease has been renewed for it. Fencing cannot stop a stalled
+     * worker's call from reaching the card network, so the call carries the payment's transaction id as its
+     * idempotency key and a retry is answered with the first outcome instead of a second charge.
+     */
+    private void settle(Lease lease) {
+        try {
+            String outcome = switch (lease.paymentMethod) {
+                case CARD -> settleCard(lease);
+                case CASH -> complete(lease, () -> settleCash(lease.paymentId));
+            };
+            if (outcome != null) {
+                count(lease.taskId, outcome);
+            }
+        } catch (RuntimeException e) {
+            recordFailure(lease, e);
+        }
+    }
+
+    private String settleCard(Lease lease) {
+        CardPayment payment = cardPaymentRepository.findById(lease.paymentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Card payment not found: " + lease.paymentId));
+        if (payment.getSettledAt() != null) {
+            return complete(lease, () -> "settled");
+        }
+        if (!renew(lease)) {
+            return null; // taken over by another worker after a lease expiry
+        }
+        boolean authorized = cardPaymentService.authorize(payment.getTransactionId(), payment.getAmount());
+        return complete(lease, () -> recordAuthorization(lease.paymentId, authorized));
+    }
+
+    private String recordAuthorization(Long paymentId, boolean authorized) {
+        CardPayment payment = cardPaymentRepository.findWithCarById(paymentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Card payment not found: " + paymentId));
+        if (payment.getSettledAt() != null) return "settled";
+
+        payment.setSuccessful(authorized);
+        payment.setSettledAt(LocalDateTime.now());
+        if (!authorized) {
+            // The car has already left – the decline is recorded for follow-up, not retried
+            log.warn("[PaymentSettlementService] Card payment {} for car {} was declined.",
+                    paymentId, payment.getCar().getId());
+            return "declined";
+        }
+        payment.setReceiptNumber(receiptNumber(SettlementTask.PaymentMethod.CARD, paymentId));
+        revenueRollupService.record(SettlementTask.PaymentMethod.CARD, payment.getCar(),
+                payment.getPaymentTimestamp(), payment.getAmount());
+        return "settled";
+    }
+
+    private String settleCash(Long paymentId) {
+        CashPayment payment = cashPaymentRepository.findById(paymentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cash payment not found: " + paymentId));
+        if (payment.getSettledAt() != null) return "settled";
+
+        payment.setReceiptNumber(receiptNumber(SettlementTask.PaymentMethod.CASH, paymentId));
+        payment.setSettledAt(LocalDateTime.now());
+        double expectedChange = payment.getCashReceived() - payment.getAmount();
+        if (Math.abs(expectedChange - payment.getChangeGiven()) > 0.005) {
+            log.warn("[PaymentSettlementService] Cash payment {} does not reconcile: change given {} but expected {}.",
+                    paymentId, payment.getChangeGiven(), expectedChange);
+            return "unreconciled";
+        }
+        return "settled";
+    }
+
+    /** Pushes the lease a full period ahead, if this worker still holds it. */
+    private boolean renew(Lease lease) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            SettlementTask task = lockHeld(lease);
+            if (task == null) return false;
+            lease.until = leaseFrom(LocalDateTime.now());
+            task.setNextAttemptAt(lease.until);
+            return true;
+        }));
+    }
+
+    /** Applies the settlement and marks the task done in one transaction, or does nothing if the lease was lost. */
+    private String complete(Lease lease, Supplier<String> settlement) {
+        return transactionTemplate.execute(status -> {
+            SettlementTask task = lockHeld(lease);
+            if (task == null) return null;
+            String result = settlement.get();
+            task.setStatus(SettlementTask.Status.DONE);
+            task.setAttempts(task.getAttempts() + 1);
+            task.setLastError(null);
+            task.setCompletedAt(LocalDateTime.now());
+            return result;
+        });
+    }
+
+    private void recordFailure(Lease lease, RuntimeException error) {
+        Long taskId = lease.taskId;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                SettlementTask task = lockHeld(lease);
+                if (task == null) return;
+                int attempts = task.getAttempts() + 1;
+                task.setAttempts(attempts);
+                task.setLastError(truncate(error.toString()));
+                if (attempts >= maxAttempts) {
+                    task.setStatus(SettlementTask.Status.FAILED);
+                    task.setCompletedAt(LocalDateTime.now());
+                    log.error("[PaymentSettlementService] Settlement task {} failed after {} attempt(s): {}",
+                            taskId, attempts, error.getMessage());
+                } else {
+                    task.setStatus(SettlementTask.Status.PENDING);
+                    task.setNextAttemptAt(LocalDateTime.now().plus(backoff.multipliedBy(1L << Math.min(attempts - 1, 16))));
+                    log.warn("[PaymentSettlementService] Settlement task {} attempt {} failed, retrying: {}",
+                            taskId, attempts, error.getMessage());
+                }
+                count(taskId, task.getStatus() == SettlementTask.Status.FAILED ? "failed" : "retried");
+            });
+        } catch (RuntimeException e) {
+            // Left IN_PROGRESS; the lease expiry makes it due again
+            log.warn("[PaymentSettlementService] Could not record failure of task {}: {}", taskId, e.getMessage());
+        }
+    }
+
+    /** Locks the task row; returns it only while it is still IN_PROGRESS under this lease. */
+    private SettlementTask lockHeld(Lease lease) {
+        SettlementTask task = settlementTaskRepository.lockById(lease.taskId).orElse(null);
+        if (task == null || task.getStatus() != SettlementTask.Status.IN_PROGRESS
+                || !lease.until.equals(task.getNextAttemptAt())) {
+            log.debug("[PaymentSettlementService] Lease on task {} was lost.", lease.taskId);
+            return null;
+        }
+        return task;
+    }
+
+    // ─── Private Helpers ─────────────────────────────────────────────────────────
+
+    // Millisecond precision survives the round-trip through any TIMESTAMP column, so leases compare equal
+    private LocalDateTime leaseFrom(LocalDateTime now) {
+        return now.plus(lease).truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    // Derived from the payment, so a retried settlement issues the same receipt
+    private static String receiptNumber(SettlementTask.PaymentMethod method, Long paymentId) {
+        return "RCPT-" + method + "-" + paymentId;
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+
+    private void count(Long taskId, String outcome) {
+        meterRegistry.counter("parking.settlements", "outcome", outcome).increment();
+        log.debug("[PaymentSettlementService] Settlement task {}: {}", taskId, outcome);
+    }
+
+    // ─── Types ───────────────────────────────────────────────────────────────────
+
+    /** A task leased by poll(); {@code until} moves forward when the lease is renewed. */
+    private static final class Lease {
+        private final Long taskId;
+        private final SettlementTask.PaymentMethod paymentMethod;
+        private final Long paymentId;
+        private LocalDateTime until;
+
+        private Lease(SettlementTask task, LocalDateTime until) {
+            this.taskId = task.getId();
+            this.paymentMethod = task.getPaymentMethod();
+            this.paymentId = task.getPaymentId();
+            this.until = until;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.parking.service;
+
+import com.parking.entity.Car;
+import com.parking.entity.SmallCar;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+/**
+ * Prices a stay from the car's hourly rate and the configured tariff.
+ * Every started hour is billed at the time-of-day band its first minute falls in, scaled by a per-car-type
+ * percentage; each 24 hours of a stay is capped at the daily cap, and stays within the grace period are free.
+ * The rules are compiled once into per-type prefix sums over two days of hourly weights, so a quote is a
+ * handful of array reads and integer operations whatever the stay length.
+ *
+ * <p>Bands are "from-to:percent" clock-hour ranges, e.g. {@code 22-6:50,7-10:150}; hours outside every band
+ * are billed at 100%. The defaults (no bands, no cap, no grace, 100% for both types) reproduce flat hourly
+ * billing.
+ */
+@Slf4j
+@Service
+public class PricingEngine {
+
+    private static final int HOURS_PER_DAY = 24;
+    // Weights are basis points of the car's hourly rate (type percent × band percent)
+    private static final long BASIS_POINTS = 10_000;
+
+    private final long graceMinutes;
+    private final Duration quoteValidity;
+    private final Tariff smallTariff;
+    private final Tariff largeTariff;
+
+    public PricingEngine(@Value("${parking.pricing.grace-minutes:0}") long graceMinutes,
+                         @Value("${parking.pricing.bands:}") String bands,
+                         @Value("${parking.pricing.quote-validity-seconds:120}") long quoteValiditySeconds,
+                         @Value("${parking.pricing.small.rate-percent:100}") int smallRatePercent,
+                         @Value("${parking.pricing.small.daily-cap-hours:0}") int smallDailyCapHours,
+                         @Value("${parking.pricing.large.rate-percent:100}") int largeRatePercent,
+                         @Value("${parking.pricing.large.daily-cap-hours:0}") int largeDailyCapHours) {
+        this.graceMinutes = Math.max(0, graceMinutes);
+        this.quoteValidity = Duration.ofSeconds(Math.max(0, quoteValiditySeconds));
+        int[] bandPercents = parseBands(bands);
+        this.smallTariff = new Tariff(bandPercents, smallRatePercent, smallDailyCapHours);
+        this.largeTariff = new Tariff(bandPercents, largeRatePercent, largeDailyCapHours);
+        log.info("[PricingEngine] Tariff: grace {} min, bands {}, small {}% (cap {} h), large {}% (cap {} h).",
+                this.graceMinutes, Arrays.toString(bandPercents),
+                smallRatePercent, smallDailyCapHours, largeRatePercent, largeDailyCapHours);
+    }
+
+    public Quote quote(Car car, LocalDateTime at) {
+        return quote(car instanceof SmallCar, car.getHourlyRate(), car.getParkedSince(), at);
+    }
+
+    public Quote quote(CarLookupCache.CarSnapshot car, LocalDateTime at) {
+        return quote(car.smallCar(), car.hourlyRate(), car.parkedSince(), at);
+    }
+
+    /**
+     * The least a payment made at {@code at} must cover: the amount that was due one quote-validity period
+     * earlier. A driver paying the quoted amount just after another hour started is not turned away.
+     */
+    public double minimumPayment(Car car, LocalDateTime at) {
+        return quote(car, at.minus(quoteValidity)).amountDue();
+    }
+
+    public Quote quote(boolean smallCar, int hourlyRate, LocalDateTime parkedSince, LocalDateTime at) {
+        // Legacy rows without a timestamp are billed as one hour that ended now
+        LocalDateTime since = parkedSince != null ? parkedSince : at.minusHours(1);
+        long minutes = Math.max(0, ChronoUnit.MINUTES.between(since, at));
+        long hours = billableHours(minutes);
+        return new Quote(minutes, hours, amountDue(smallCar, hourlyRate, since.getHour(), hours));
+    }
+
+    /** Started hours to bill for a stay of {@code minutes}: none within the grace period, otherwise at least one. */
+    public long billableHours(long minutes) {
+        if (graceMinutes > 0 && minutes <= graceMinutes) return 0;
+        return Math.max(1, (minutes + 59) / 60);
+    }
+
+    /** Amount due, rounded to cents, for {@code hours} billed hours starting at clock hour {@code startHour}. */
+    public double amountDue(boolean smallCar, int hourlyRate, int startHour, long hours) {
+        long weight = (smallCar ? smallTariff : largeTariff).weight(startHour, hours);
+        return Math.round((double) hourlyRate * weight / (BASIS_POINTS / 100)) / 100.0;
+    }
+
+    // ─── Private Helpers ─────────────────────────────────────────────────────────
+
+    private static int[] parseBands(String bands) {
+        int[] percents = new int[HOURS_PER_DAY];
+        Arrays.fill(percents, 100);
+        if (bands == null || bands.isBlank()) return percents;
+
+        for (String band : bands.split(",")) {
+            String spec = band.trim();
+            try {
+                int colon = spec.indexOf(':');
+                int dash = spec.indexOf('-');
+                int from = Integer.parseInt(spec.substring(0, dash).trim());
+                int to = Integer.parseInt(spec.substring(dash + 1, colon).trim());
+                int percent = Integer.parseInt(spec.substring(colon + 1).trim());
+                if (from < 0 || from > HOURS_PER_DAY || to < 0 || to > HOURS_PER_DAY || percent < 0) {
+                    throw new IllegalArgumentException("out of range");
+                }
+                // from > to wraps past midnight; later bands win where ranges overlap
+                int span = to - from > 0 ? to - from : to - from + HOURS_PER_DAY;
+                for (int k = 0; k < span; k++) {
+                    percents[(from + k) % HOURS_PER_DAY] = percent;
+                }
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid parking.pricing.bands entry '" + spec
+                        + "', expected from-to:percent with hours 0-24", e);
+            }
+        }
+        return percents;
+    }
+
+    // ─── Types ───────────────────────────────────────────────────────────────────
+
+    public record Quote(long minutes, long billedHours, double amountDue) {
+    }
+
+    /** Immutable compiled tariff for one car type. */
+    private static final class Tariff {
+        // prefix[i] = weight of clock hours 0..i-1 over two consecutive days, so any window of up to
+        // 24 hours starting at any clock hour is prefix[start + n] - prefix[start]
+        private final long[] prefix = new long[2 * HOURS_PER_DAY + 1];
+        private final long dayWeight;
+        private final long cap;
+
+        private Tariff(int[] bandPercents, int ratePercent, int dailyCapHours) {
+            for (int i = 0; i < 2 * HOURS_PER_DAY; i++) {
+                prefix[i + 1] = prefix[i] + (long) Math.max(0, ratePercent) * bandPercents[i % HOURS_PER_DAY];
+            }
+            long fullDay = prefix[HOURS_PER_DAY];
+            long cap = dailyCapHours > 0 ? dailyCapHours * BASIS_POINTS : Long.MAX_VALUE;
+            this.dayWeight = Math.min(fullDay, cap);
+            this.cap = cap;
+        }
+
+        private long weight(int startHour, long hours) {
+            long days = hours / HOURS_PER_DAY;
+            int rest = (int) (hours % HOURS_PER_DAY);
+            // Full days start again at startHour, so the remainder window always begins there too
+            long restWeight = prefix[startHour + rest] - prefix[startHour];
+            return days * dayWeight + Math.min(restWeight, cap);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.parking.service;
+
+import com.parking.entity.Car;
+import com.parking.entity.RevenueRollup;
+import com.parking.entity.SettlementTask;
+import com.parking.entity.SmallCar;
+import com.parking.exception.InvalidDateRangeException;
+import com.parking.repository.RevenueRollupRepository;
+import com.parking.repository.RevenueTotalsView;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Revenue reports served from the revenue_rollups table instead of the payment rows.
+ * Each successful payment is added to its hour and day buckets in the transaction that makes it successful
+ * (cash at the gate, card at settlement). A report takes whole days from the day buckets and only the
+ * partial days at either end from the hour buckets, so a month costs a few hundred rollup rows however many
+ * payments it covers.
+ */
+@Slf4j
+@Service
+public class RevenueRollupService {
+
+    private static final String BACKFILL_MIGRATION = "revenue_rollups_backfill";
+
+    private final RevenueRollupRepository revenueRollupRepository;
+
+    public RevenueRollupService(RevenueRollupRepository revenueRollupRepository) {
+        this.revenueRollupRepository = revenueRollupRepository;
+    }
+
+    /** Adds a successful payment to its buckets; call inside the transaction that records the payment. */
+    public void record(SettlementTask.PaymentMethod method, Car car, LocalDateTime paymentTimestamp, double amount) {
+        LocalDateTime hour = paymentTimestamp.truncatedTo(ChronoUnit.HOURS);
+        revenueRollupRepository.add(hour, hour.truncatedTo(ChronoUnit.DAYS), method.name(), carType(car).name(), amount);
+    }
+
+    /**
+     * Rebuilds the rollups from the payment tables once per database, guarded by a data_migrations row rather
+     * than by the table being empty: settlements on this or another instance may already have added buckets by
+     * the time this runs. The table lock holds back concurrent {@link #record} calls, and every payment that
+     * becomes successful records itself in that same transaction, so each one is counted exactly once.
+     */
+    @Transactional
+    public void backfillOnce() {
+        if (revenueRollupRepository.markMigrationApplied(BACKFILL_MIGRATION) == 0) return;
+        revenueRollupRepository.lockForRebuild();
+        revenueRollupRepository.deleteAllInBatch();
+        int rows = revenueRollupRepository.backfill();
+        if (rows > 0) {
+            log.info("[RevenueRollupService] Backfilled {} revenue rollup row(s) from existing payments.", rows);
+        }
+    }
+
+    /**
+     * Totals for payments made in [start, end), widened to whole hours, overall and by method and car type.
+     */
+    public Summary summary(LocalDateTime start, LocalDateTime end) {
+        LocalDateTime from = start.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime to = ceilTo(end, ChronoUnit.HOURS);
+        checkRange(from, to);
+
+        LocalDateTime firstDay = ceilTo(from, ChronoUnit.DAYS);
+        LocalDateTime lastDay = to.truncatedTo(ChronoUnit.DAYS);
+
+        List<RevenueTotalsView> parts = new ArrayList<>();
+        if (firstDay.isBefore(lastDay)) {
+            parts.addAll(revenueRollupRepository.sumByMethodAndCarType(RevenueRollup.Granularity.HOUR, from, firstDay));
+            parts.addAll(revenueRollupRepository.sumByMethodAndCarType(RevenueRollup.Granularity.DAY, firstDay, lastDay));
+            parts.addAll(revenueRollupRepository.sumByMethodAndCarType(RevenueRollup.Granularity.HOUR, lastDay, to));
+        } else {
+            parts.addAll(revenueRollupRepository.sumByMethodAndCarType(RevenueRollup.Granularity.HOUR, from, to));
+        }
+
+        Totals total = new Totals();
+        Map<SettlementTask.PaymentMethod, Totals> byMethod = new EnumMap<>(SettlementTask.PaymentMethod.class);
+        Map<RevenueRollup.CarType, Totals> byCarType = new EnumMap<>(RevenueRollup.CarType.class);
+        for (RevenueTotalsView part : parts) {
+            long count = part.getPaymentCount() != null ? part.getPaymentCount() : 0;
+            double amount = part.getTotalAmount() != null ? part.getTotalAmount() : 0;
+            total.add(count, amount);
+            byMethod.computeIfAbsent(part.getPaymentMethod(), m -> new Totals()).add(count, amount);
+            byCarType.computeIfAbsent(part.getCarType(), t -> new Totals()).add(count, amount);
+        }
+        return new Summary(from, to, total, byMethod, byCarType);
+    }
+
+    /** The individual hour or day buckets overlapping [start, end). */
+    public List<RevenueRollup> series(LocalDateTime start, LocalDateTime end, RevenueRollup.Granularity granularity) {
+        ChronoUnit unit = granularity == RevenueRollup.Granularity.DAY ? ChronoUnit.DAYS : ChronoUnit.HOURS;
+        LocalDateTime from = start.truncatedTo(unit);
+        LocalDateTime to = ceilTo(end, unit);
+        checkRange(from, to);
+        return revenueRollupRepository.findBuckets(granularity, from, to);
+    }
+
+    // ─── Private Helpers ─────────────────────────────────────────────────────────
+
+    private static RevenueRollup.CarType carType(Car car) {
+        return car instanceof SmallCar ? RevenueRollup.CarType.SMALL : RevenueRollup.CarType.LARGE;
+    }
+
+    private static LocalDateTime ceilTo(LocalDateTime time, ChronoUnit unit) {
+        LocalDateTime floor = time.truncatedTo(unit);
+        return floor.equals(time) ? floor : floor.plus(1, unit);
+    }
+
+    private static void checkRange(LocalDateTime from, LocalDateTime to) {
+        if (from.isAfter(to)) {
+            throw new InvalidDateRangeException("Start time must be before end time");
+        }
+    }
+
+    // ─── Types ───────────────────────────────────────────────────────────────────
+
+    public record Summary(LocalDateTime from, LocalDateTime to, Totals total,
+                          Map<SettlementTask.PaymentMethod, Totals> byPaymentMethod,
+                          Map<RevenueRollup.CarType, Totals> byCarType) {
+    }
+
+    public static final class Totals {
+        private long paymentCount;
+        private double totalAmount;
+
+        private void add(long count, double amount) {
+            paymentCount += count;
+            totalAmount += amount;
+        }
+
+        public long getPaymentCount() {
+            return paymentCount;
+        }
+
+        public double getTotalAmount() {
+            return Math.round(totalAmount * 100) / 100.0;
+        }
+
+        public double getAverageAmount() {
+            return paymentCount == 0 ? 0 : Math.round(totalAmount / paymentCount * 100) / 100.0;
+        }
+    }
+}
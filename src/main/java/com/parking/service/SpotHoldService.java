@@ -0,0 +1,314 @@
+package com.parking.service;
+
+import com.parking.entity.ParkingSpot;
+import com.parking.exception.NoAvailableSpotException;
+import com.parking.exception.ResourceNotFoundException;
+import com.parking.repository.ParkingSpotRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds on spots ahead of parking: short in-memory holds behind a preview, and driver reservations
+ * persisted on the spot row. A held spot is claimed in the FreeSpotIndex; redeeming the token hands it
+ * to park, while releasing or expiring it returns it to the pool. A redeemed hold is only dropped once
+ * the park commits; if the park rolls back the token stays valid and the spot stays held. Expiry runs on a hashed timing wheel,
+ * so lapsed holds are found without scanning the holds or the parking_spots table.
+ * Holds are taken from this node's index, i.e. from lots it owns, and are only redeemable on this node;
+ * the token names the spot's lot, so a token presented to another node is redirected to the lot's owner.
+ */
+@Slf4j
+@Service
+public class SpotHoldService {
+
+    private static final int MAX_RESERVE_ATTEMPTS = 5;
+
+    private final FreeSpotIndex freeSpotIndex;
+    private final ParkingSpotRepository parkingSpotRepository;
+    private final LotOwnership lotOwnership;
+    private final LevelOccupancyCounters levelOccupancyCounters;
+    private final Duration previewTtl;
+    private final Duration maxReservation;
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+    private final ExpiryWheel<Hold> expiryWheel;
+
+    public SpotHoldService(FreeSpotIndex freeSpotIndex,
+                           ParkingSpotRepository parkingSpotRepository,
+                           LotOwnership lotOwnership,
+                           LevelOccupancyCounters levelOccupancyCounters,
+                           @Value("${parking.holds.preview-ttl-seconds:60}") long previewTtlSeconds,
+                           @Value("${parking.holds.max-reservation-minutes:120}") long maxReservationMinutes,
+                           @Value("${parking.holds.wheel-tick-ms:1000}") long wheelTickMs,
+                           @Value("${parking.holds.wheel-size:512}") int wheelSize) {
+        this.freeSpotIndex = freeSpotIndex;
+        this.parkingSpotRepository = parkingSpotRepository;
+        this.lotOwnership = lotOwnership;
+        this.levelOccupancyCounters = levelOccupancyCounters;
+        this.previewTtl = Duration.ofSeconds(previewTtlSeconds);
+        this.maxReservation = Duration.ofMinutes(maxReservationMinutes);
+        this.expiryWheel = new ExpiryWheel<>("spot-holds", Duration.ofMillis(wheelTickMs), wheelSize, this::expire);
+    }
+
+    /** Re-arms reservations that survived a restart and drops those that lapsed while the app was down. */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreReservations() {
+        Instant now = Instant.now();
+        int restored = 0;
+        for (ParkingSpot spot : parkingSpotRepository.findByReservationTokenIsNotNull()) {
+            Long parkingLotId = spot.getLevel().getParkingLot().getId();
+            if (!lotOwnership.owns(parkingLotId)) continue; // re-armed by the owner
+            FreeSpotIndex.SpotRef ref = new FreeSpotIndex.SpotRef(spot.getId(), spot.getSpotNumber(),
+                    spot.getLevel().getId(), parkingLotId, spot.isSmallCarSpot());
+            Instant expiresAt = spot.getReservedUntil() != null
+                    ? spot.getReservedUntil().atZone(ZoneId.systemDefault()).toInstant()
+                    : now;
+            track(new Hold(spot.getReservationToken(), ref, expiresAt, true), now);
+            restored++;
+        }
+        if (restored > 0) {
+            log.info("[SpotHoldService] Restored {} reservation(s).", restored);
+        }
+    }
+
+    /** Claims the next free spot of the given type and holds it in memory for the preview TTL. */
+    public Optional<Hold> hold(boolean smallCarSpot) {
+        Instant now = Instant.now();
+        return freeSpotIndex.claim(smallCarSpot)
+                .map(ref -> track(new Hold(newToken(ref.parkingLotId()), ref, now.plus(previewTtl), false), now));
+    }
+
+    /** Reserves the next free spot of the given type for the requested duration (capped by configuration). */
+    @Timed(value = "parking.reserve", description = "Reserve a spot ahead of arrival")
+    public Hold reserve(boolean smallCarSpot, Duration duration) {
+        Duration ttl = duration.compareTo(maxReservation) > 0 ? maxReservation : duration;
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(ttl);
+
+        for (int attempt = 1; attempt <= MAX_RESERVE_ATTEMPTS; attempt++) {
+            FreeSpotIndex.SpotRef ref = freeSpotIndex.claim(smallCarSpot)
+                    .orElseThrow(() -> new NoAvailableSpotException(
+                            "No available spot to reserve for " + (smallCarSpot ? "small" : "large") + " car"));
+            String token = newToken(ref.parkingLotId());
+
+            LocalDateTime reservedUntil = LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault());
+            if (parkingSpotRepository.reserveIfFree(ref.spotId(), token, reservedUntil) == 1) {
+                levelOccupancyCounters.reservationChanged(ref.levelId(), true);
+                return track(new Hold(token, ref, expiresAt, true), now);
+            }
+            // Spot was taken outside the index – leave it claimed and try the next one
+        }
+        throw new NoAvailableSpotException("Could not reserve a spot after " + MAX_RESERVE_ATTEMPTS + " attempts");
+    }
+
+    /** Cancels a preview hold or reservation and returns its spot to the pool. */
+    public void release(String token) {
+        Hold hold = holds.get(token);
+        if (hold == null) {
+            checkRedeemable(token);
+            throw new ResourceNotFoundException("Reservation not found: " + token);
+        }
+        hold.cancelTimeout();
+        lapse(hold);
+    }
+
+    /**
+     * Throws LotNotOwnedException when the token was issued by the owner of another lot, so the park is
+     * redirected there instead of silently allocating a different spot. In a cluster a token that names no
+     * lot cannot be routed and is rejected. A token for a local lot that is no longer held has simply expired.
+     */
+    public void checkRedeemable(String token) {
+        if (token == null || holds.containsKey(token)) return;
+
+        Long parkingLotId = lotOf(token);
+        if (parkingLotId != null) {
+            lotOwnership.checkOwned(parkingLotId);
+        } else if (lotOwnership.isClustered()) {
+            throw new ResourceNotFoundException("Hold not found: " + token);
+        }
+    }
+
+    /**
+     * Redeems a hold for park. Returns the held spot if the token is known, matches the spot type and is
+     * not already being redeemed by another park; the hold is settled when that park commits or rolls back.
+     * A mismatched type releases the spot back to the pool.
+     */
+    public Optional<FreeSpotIndex.SpotRef> redeem(String token, boolean smallCarSpot) {
+        Hold hold = token != null ? holds.get(token) : null;
+        if (hold == null) return Optional.empty();
+
+        if (hold.spot().smallCarSpot() != smallCarSpot) {
+            hold.cancelTimeout();
+            lapse(hold);
+            return Optional.empty();
+        }
+        return hold.beginRedeem() ? Optional.of(hold.spot()) : Optional.empty();
+    }
+
+    /** Drops a redeemed hold whose spot could not be claimed; the spot is left out of the pool. */
+    public void discard(String token) {
+        Hold hold = holds.remove(token);
+        if (hold != null) {
+            hold.cancelTimeout();
+        }
+    }
+
+    // ─── Park outcome ────────────────────────────────────────────────────────────
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCommit(SpotOccupancyEvent event) {
+        if (!event.occupied() || event.holdToken() == null) return;
+
+        // The spot is now occupied; the hold (and a reservation's row token) is used up
+        Hold hold = holds.remove(event.holdToken());
+        if (hold == null) return;
+        hold.cancelTimeout();
+        if (hold.reservation()) {
+            levelOccupancyCounters.reservationChanged(hold.spot().levelId(), false);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onRollback(SpotOccupancyEvent event) {
+        if (!event.occupied() || event.holdToken() == null) return;
+
+        // The park never happened: the hold stands, unless it expired or was released meanwhile
+        Hold hold = holds.get(event.holdToken());
+        if (hold != null && hold.endRedeem() && holds.remove(hold.token(), hold)) {
+            releaseSpot(hold);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        expiryWheel.stop();
+    }
+
+    // ─── Private Helpers ─────────────────────────────────────────────────────────
+
+    private Hold track(Hold hold, Instant now) {
+        Duration remaining = Duration.between(now, hold.expiresAt());
+        // Tracked before it is scheduled: a lapsed reservation's expiry can fire at once and must find it
+        holds.put(hold.token(), hold);
+        hold.timeout = expiryWheel.schedule(hold, remaining.isNegative() ? Duration.ZERO : remaining);
+        return hold;
+    }
+
+    private void expire(Hold hold) {
+        lapse(hold);
+    }
+
+    // Releases the hold now, or once an in-flight park that redeemed it rolls back
+    private void lapse(Hold hold) {
+        if (hold.lapse() && holds.remove(hold.token(), hold)) {
+            releaseSpot(hold);
+        }
+    }
+
+    private void releaseSpot(Hold hold) {
+        FreeSpotIndex.SpotRef spot = hold.spot();
+        if (hold.reservation()) {
+            // Zero rows means park already consumed the reservation – the spot is occupied, not free
+            if (parkingSpotRepository.releaseReservation(spot.spotId(), hold.token()) == 0) {
+                return;
+            }
+            levelOccupancyCounters.reservationChanged(spot.levelId(), false);
+        }
+        freeSpotIndex.release(spot.levelId(), spot.spotId());
+    }
+
+    // <lotId>.<uuid>: any node can tell which owner issued the token
+    private static String newToken(Long parkingLotId) {
+        return parkingLotId + "." + UUID.randomUUID();
+    }
+
+    // The lot named by the token, or null for a malformed token (or one issued before tokens named their lot)
+    private static Long lotOf(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0) return null;
+        try {
+            return Long.valueOf(token.substring(0, dot));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // ─── Types ───────────────────────────────────────────────────────────────────
+
+    public static final class Hold {
+        private final String token;
+        private final FreeSpotIndex.SpotRef spot;
+        private final Instant expiresAt;
+        private final boolean reservation;
+        private volatile ExpiryWheel.Timeout timeout;
+        // Guarded by this: a park has redeemed the hold / the hold expired or was released
+        private boolean redeeming;
+        private boolean lapsed;
+
+        private Hold(String token, FreeSpotIndex.SpotRef spot, Instant expiresAt, boolean reservation) {
+            this.token = token;
+            this.spot = spot;
+            this.expiresAt = expiresAt;
+            this.reservation = reservation;
+        }
+
+        public String token() {
+            return token;
+        }
+
+        public FreeSpotIndex.SpotRef spot() {
+            return spot;
+        }
+
+        public Instant expiresAt() {
+            return expiresAt;
+        }
+
+        public boolean reservation() {
+            return reservation;
+        }
+
+        // Null only while track() is still scheduling the expiry
+        private void cancelTimeout() {
+            ExpiryWheel.Timeout scheduled = timeout;
+            if (scheduled != null) {
+                scheduled.cancel();
+            }
+        }
+
+        private synchronized boolean beginRedeem() {
+            if (redeeming || lapsed) return false;
+            redeeming = true;
+            return true;
+        }
+
+        // Returns true when the hold lapsed while the park was in flight and must be released now
+        private synchronized boolean endRedeem() {
+            redeeming = false;
+            return lapsed;
+        }
+
+        // Returns true when the hold can be released now, false while a park is redeeming it
+        private synchronized boolean lapse() {
+            lapsed = true;
+            return !redeeming;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.parking.service;
+
+import com.parking.entity.Level;
+import com.parking.entity.ParkingSpot;
+
+/**
+ * Published whenever a park or leave flips a spot's occupancy.
+ * Listeners use the transaction phase to decide whether to apply or compensate.
+ * {@code holdToken} is set when a park took the spot through a hold or reservation.
+ */
+public record SpotOccupancyEvent(Long spotId,
+                                 Long levelId,
+                                 Long parkingLotId,
+                                 boolean smallCarSpot,
+                                 boolean occupied,
+                                 String holdToken) {
+
+    public static SpotOccupancyEvent of(ParkingSpot spot, boolean occupied) {
+        Level level = spot.getLevel();
+        Long levelId = level != null ? level.getId() : null;
+        Long parkingLotId = level != null && level.getParkingLot() != null ? level.getParkingLot().getId() : null;
+        return new SpotOccupancyEvent(spot.getId(), levelId, parkingLotId, spot.isSmallCarSpot(), occupied, null);
+    }
+
+    public static SpotOccupancyEvent of(FreeSpotIndex.SpotRef ref, boolean occupied) {
+        return of(ref, occupied, null);
+    }
+
+    public static SpotOccupancyEvent of(FreeSpotIndex.SpotRef ref, boolean occupied, String holdToken) {
+        return new SpotOccupancyEvent(ref.spotId(), ref.levelId(), ref.parkingLotId(), ref.smallCarSpot(), occupied,
+                holdToken);
+    }
+}
@@ -0,0 +1,77 @@
+package com.parking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style card transaction ids: 41 bits of milliseconds since 2024-01-01, 10 bits of node id and a
+ * 12-bit per-millisecond sequence. The timestamp and sequence share one AtomicLong advanced by a CAS loop,
+ * so generation never blocks. When a millisecond's 4096 ids run out the sequence carries into the next
+ * millisecond instead of waiting for the clock, and a clock that steps back continues from the last id,
+ * so ids stay unique and increasing on a node. Distinct node ids keep instances apart.
+ */
+@Slf4j
+@Component
+public class TransactionIdGenerator {
+
+    static final long EPOCH_MS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final String PREFIX = "TXN";
+    // Zero-padded to the width of Long.MAX_VALUE so string order matches numeric order
+    private static final int DIGITS = 19;
+
+    private final long nodeId;
+    // (milliseconds since EPOCH_MS << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong lastTick = new AtomicLong();
+
+    public TransactionIdGenerator(@Value("${parking.cluster.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("parking.cluster.node-id must be between 0 and " + MAX_NODE_ID
+                    + ", was " + nodeId);
+        }
+        this.nodeId = nodeId;
+        log.info("[TransactionIdGenerator] Issuing transaction ids for node {}.", nodeId);
+    }
+
+    /** A new id, unique across nodes and increasing on this node. */
+    public long nextId() {
+        long now = (System.currentTimeMillis() - EPOCH_MS) << SEQUENCE_BITS;
+        long last;
+        long next;
+        do {
+            last = lastTick.get();
+            next = now > last ? now : last + 1;
+        } while (!lastTick.compareAndSet(last, next));
+
+        long millis = next >>> SEQUENCE_BITS;
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+    }
+
+    /** {@link #nextId()} formatted as a fixed-width transaction id, e.g. TXN0000123456789012345. */
+    public String nextTransactionId() {
+        String digits = Long.toString(nextId());
+        StringBuilder id = new StringBuilder(PREFIX.length() + DIGITS).append(PREFIX);
+        for (int i = digits.length(); i < DIGITS; i++) {
+            id.append('0');
+        }
+        return id.append(digits).toString();
+    }
+
+    /** Milliseconds since the Unix epoch at which {@code id} was issued (or borrowed into). */
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MS;
+    }
+
+    public static long nodeOf(long id) {
+        return (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+}
@@ -1,24 +1,41 @@
 package com.parking.web;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.parking.entity.InspectionRecord.InspectionStatus;
+import com.parking.repository.InspectionRecordView;
 import com.parking.service.IInspectionService;
+import com.parking.service.InspectionPage;
+import com.parking.web.dto.InspectionPageResponse;
 import com.parking.web.dto.InspectionRecordResponse;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/inspections")
 public class InspectionController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final IInspectionService inspectionService;
+    private final ObjectMapper objectMapper;
 
-    public InspectionController(@Qualifier("userInspectionService") IInspectionService inspectionService) {
+    public InspectionController(@Qualifier("userInspectionService") IInspectionService inspectionService,
+                                ObjectMapper objectMapper) {
         this.inspectionService = inspectionService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -31,58 +48,95 @@ public class InspectionController {
     }
 
     /**
-     * Get all inspections for a parking lot.
-     * GET /api/inspections/lot/{parkingLotId}
+     * Inspections for a parking lot, newest first, one page at a time.
+     * GET /api/inspections/lot/{parkingLotId}?cursor=...&limit=50
      */
     @GetMapping("/lot/{parkingLotId}")
-    public ResponseEntity<List<InspectionRecordResponse>> getByParkingLot(@PathVariable Long parkingLotId) {
-        List<InspectionRecordResponse> responses = inspectionService.getInspectionsByParkingLot(parkingLotId)
-                .stream()
-                .map(InspectionRecordResponse::new)
-                .toList();
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<InspectionPageResponse> getByParkingLot(
+            @PathVariable Long parkingLotId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + InspectionPage.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(new InspectionPageResponse(
+                inspectionService.getInspectionsByParkingLot(parkingLotId, cursor, limit)));
     }
 
     /**
-     * Get the latest inspections for a parking lot.
-     * GET /api/inspections/lot/{parkingLotId}/latest
+     * The most recent inspections for a parking lot (first page only).
+     * GET /api/inspections/lot/{parkingLotId}/latest?limit=10
      */
     @GetMapping("/lot/{parkingLotId}/latest")
-    public ResponseEntity<List<InspectionRecordResponse>> getLatestByParkingLot(@PathVariable Long parkingLotId) {
-        List<InspectionRecordResponse> responses = inspectionService.getLatestInspections(parkingLotId)
-                .stream()
-                .map(InspectionRecordResponse::new)
-                .toList();
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<List<InspectionRecordResponse>> getLatestByParkingLot(
+            @PathVariable Long parkingLotId,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(new InspectionPageResponse(
+                inspectionService.getLatestInspections(parkingLotId, limit)).getItems());
     }
 
+    /**
+     * Full inspection history of a parking lot as newline-delimited JSON, streamed from the database.
+     * GET /api/inspections/lot/{parkingLotId}/export
+     */
+    @GetMapping(value = "/lot/{parkingLotId}/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportByParkingLot(@PathVariable Long parkingLotId) {
+        return ndjson(sink -> inspectionService.exportInspectionsByParkingLot(parkingLotId, sink));
+    }
 
     /**
-     * Get all inspections by status.
-     * GET /api/inspections/status/{status}
+     * Inspections by status, newest first, one page at a time.
+     * GET /api/inspections/status/{status}?cursor=...&limit=50
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<InspectionRecordResponse>> getByStatus(@PathVariable InspectionStatus status) {
-        List<InspectionRecordResponse> responses = inspectionService.getInspectionsByStatus(status)
-                .stream()
-                .map(InspectionRecordResponse::new)
-                .toList();
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<InspectionPageResponse> getByStatus(
+            @PathVariable InspectionStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + InspectionPage.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(new InspectionPageResponse(
+                inspectionService.getInspectionsByStatus(status, cursor, limit)));
     }
 
     /**
-     * Get all inspections within a date range.
-     * GET /api/inspections/range?start=...&end=...
+     * Inspections within a date range, newest first, one page at a time.
+     * GET /api/inspections/range?start=...&end=...&cursor=...&limit=50
      */
     @GetMapping("/range")
-    public ResponseEntity<List<InspectionRecordResponse>> getByDateRange(
+    public ResponseEntity<InspectionPageResponse> getByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + InspectionPage.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(new InspectionPageResponse(
+                inspectionService.getInspectionsByDateRange(start, end, cursor, limit)));
+    }
+
+    /**
+     * Inspections within a date range as newline-delimited JSON, streamed from the database.
+     * GET /api/inspections/range/export?start=...&end=...
+     */
+    @GetMapping(value = "/range/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
-        List<InspectionRecordResponse> responses = inspectionService.getInspectionsByDateRange(start, end)
-                .stream()
-                .map(InspectionRecordResponse::new)
-                .toList();
-        return ResponseEntity.ok(responses);
+        return ndjson(sink -> inspectionService.exportInspectionsByDateRange(start, end, sink));
     }
-}
 
+    // ─── Private Helpers ─────────────────────────────────────────────────────────
+
+    // One JSON object per line, written as rows arrive; nothing is collected in memory
+    private ResponseEntity<StreamingResponseBody> ndjson(Consumer<Consumer<InspectionRecordView>> export) {
+        ObjectWriter writer = objectMapper.writerFor(InspectionRecordResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                export.accept(record -> {
+                    try {
+                        writer.writeValue(generator, new InspectionRecordResponse(record));
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+}
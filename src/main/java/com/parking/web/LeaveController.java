@@ -1,9 +1,13 @@
 package com.parking.web;
 
 import com.parking.service.ILeaveService;
+import com.parking.web.dto.BatchItemResult;
+import com.parking.web.dto.BatchLeaveRequest;
+import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -16,6 +20,16 @@ public class LeaveController {
         this.leaveService = leaveService;
     }
 
+    /**
+     * Release a burst of cars replayed by a gate controller, in one transaction.
+     * Each plate gets its own result; a rejected plate does not fail the batch.
+     * POST /api/leave/batch
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> leaveBatch(@Valid @RequestBody BatchLeaveRequest request) {
+        return ResponseEntity.ok(leaveService.leaveBatch(request.getLicensePlates()));
+    }
+
     /**
      * Release a car from its parking spot by license plate.
      * POST /api/leave/{licensePlate}
@@ -0,0 +1,29 @@
+package com.parking.web;
+
+import com.parking.service.LotProvisioningService;
+import com.parking.web.dto.ProvisionLotRequest;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/lots")
+public class LotProvisioningController {
+
+    private final LotProvisioningService lotProvisioningService;
+
+    public LotProvisioningController(LotProvisioningService lotProvisioningService) {
+        this.lotProvisioningService = lotProvisioningService;
+    }
+
+    /**
+     * Provision a new lot with all of its levels and spots in one bulk write.
+     * POST /api/admin/lots
+     */
+    @PostMapping
+    public ResponseEntity<LotProvisioningService.ProvisionedLot> provision(
+            @Valid @RequestBody ProvisionLotRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(lotProvisioningService.provision(request));
+    }
+}
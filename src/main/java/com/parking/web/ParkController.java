@@ -2,12 +2,16 @@ package com.parking.web;
 
 import com.parking.entity.ParkingSpot;
 import com.parking.service.IParkService;
+import com.parking.web.dto.BatchItemResult;
+import com.parking.web.dto.BatchParkRequest;
 import com.parking.web.dto.ParkRequest;
 import com.parking.web.dto.ParkingSpotResponse;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/park")
 public class ParkController {
@@ -31,5 +35,14 @@ public class ParkController {
         ParkingSpot spot = parkService.park(request);
         return ResponseEntity.ok(new ParkingSpotResponse(spot));
     }
-}
 
+    /**
+     * Park a burst of cars replayed by a gate controller, in one transaction.
+     * Each item gets its own result; a rejected item does not fail the batch.
+     * POST /api/park/batch
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> parkBatch(@Valid @RequestBody BatchParkRequest request) {
+        return ResponseEntity.ok(parkService.parkBatch(request.getRequests()));
+    }
+}
@@ -28,7 +28,8 @@ public class PaymentController {
     // -------------------------------------------------------
 
     /**
-     * Process a card payment for a car.
+     * Record a card payment for a car and let it exit; authorization settles asynchronously.
+     * Returns 202 – poll GET /api/payments/card/{id} until settledAt is set.
      * POST /api/payments/card
      */
     @PostMapping("/card")
@@ -40,7 +41,7 @@ public class PaymentController {
                         request.getCardNumber()
                 )
         );
-        return ResponseEntity.ok(response);
+        return ResponseEntity.accepted().body(response);
     }
 
     /**
@@ -0,0 +1,129 @@
+package com.parking.web;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parking.service.LotOwnership;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+
+/**
+ * Reads from the other nodes of a cluster (see LotOwnership) for the endpoints whose answer spans lots served
+ * elsewhere. Callers ask for the {@code scope=node} variant of an endpoint, which answers for the lots of that
+ * node only, so requests never bounce between nodes. A node without a configured URL, or one that fails or
+ * does not answer within parking.cluster.peer-timeout-ms, is reported as unavailable rather than skipped silently.
+ */
+@Slf4j
+@Component
+public class PeerClient {
+
+    private final LotOwnership lotOwnership;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+
+    public PeerClient(LotOwnership lotOwnership, ObjectMapper objectMapper,
+                      @Value("${parking.cluster.peer-timeout-ms:1000}") long timeoutMs) {
+        this.lotOwnership = lotOwnership;
+        this.objectMapper = objectMapper;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    /** GETs {@code path} from every other node in parallel. */
+    public <T> FanOut<T> getFromPeers(String path, TypeReference<T> type) {
+        Map<Integer, CompletableFuture<T>> pending = new TreeMap<>();
+        List<Integer> unavailable = new ArrayList<>();
+        lotOwnership.peers().forEach((node, baseUrl) -> {
+            if (baseUrl.isBlank()) {
+                unavailable.add(node);
+                return;
+            }
+            pending.put(node, httpClient.sendAsync(jsonRequest(baseUrl, path), HttpResponse.BodyHandlers.ofByteArray())
+                    .thenApply(response -> parse(response, type)));
+        });
+
+        List<T> responses = new ArrayList<>(pending.size());
+        pending.forEach((node, response) -> {
+            try {
+                responses.add(response.join());
+            } catch (CompletionException | CancellationException e) {
+                log.warn("[PeerClient] Node {} did not answer {}: {}", node, path, e.getMessage());
+                unavailable.add(node);
+            }
+        });
+        Collections.sort(unavailable);
+        return new FanOut<>(responses, unavailable);
+    }
+
+    /** GETs {@code path} from one node. */
+    public <T> T get(String baseUrl, String path, Class<T> type) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(jsonRequest(baseUrl, path),
+                HttpResponse.BodyHandlers.ofByteArray());
+        checkStatus(response);
+        return objectMapper.readValue(response.body(), type);
+    }
+
+    /** Opens a server-sent-event stream on one node; its lines arrive until the node or the caller closes it. */
+    public Stream<String> openStream(String baseUrl, String path) throws IOException, InterruptedException {
+        // No request timeout: the response stays open for as long as the stream runs
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+        HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+        if (response.statusCode() != 200) {
+            response.body().close();
+            checkStatus(response);
+        }
+        return response.body();
+    }
+
+    // ─── Private Helpers ─────────────────────────────────────────────────────────
+
+    private HttpRequest jsonRequest(String baseUrl, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Accept", "application/json")
+                .timeout(timeout)
+                .GET()
+                .build();
+    }
+
+    private <T> T parse(HttpResponse<byte[]> response, TypeReference<T> type) {
+        try {
+            checkStatus(response);
+            return objectMapper.readValue(response.body(), type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void checkStatus(HttpResponse<?> response) throws IOException {
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode() + " from " + response.uri());
+        }
+    }
+
+    // ─── Types ───────────────────────────────────────────────────────────────────
+
+    /** The answers of the nodes that responded, and the ids of those that did not, in node order. */
+    public record FanOut<T>(List<T> responses, List<Integer> unavailableNodes) {
+    }
+}
@@ -0,0 +1,179 @@
+package com.parking.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parking.config.ParkingExecutors;
+import com.parking.service.LevelOccupancyCounters.Totals;
+import com.parking.service.LotOwnership;
+import com.parking.web.dto.SpotAvailability;
+import com.parking.web.dto.SpotDelta;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+
+/**
+ * Follows the node-scoped spot stream of every other node of a cluster, so SpotEventBroadcaster can carry
+ * the whole cluster's park / leave events and availability. Each peer gets one reader thread, which reopens
+ * the stream with exponential backoff whenever it drops. On every (re)connect the peer's type totals are
+ * fetched, then kept current from its deltas; a peer that is not connected contributes nothing, and
+ * subscribers are told to resync whenever a peer's contribution jumps (connect, disconnect, peer resync).
+ */
+@Slf4j
+@Component
+public class PeerStreamRelay {
+
+    static final String NODE_STREAM = "/api/spots/stream?scope=node";
+    static final String NODE_AVAILABILITY = "/api/spots/availability?scope=node";
+
+    private static final long MIN_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final LotOwnership lotOwnership;
+    private final PeerClient peerClient;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService readers;
+    // Last known totals of each connected peer
+    private final Map<Integer, SpotAvailability> peerTotals = new ConcurrentHashMap<>();
+    private final Map<Integer, Stream<String>> openStreams = new ConcurrentHashMap<>();
+    private volatile Listener listener;
+    private volatile boolean running;
+
+    public PeerStreamRelay(LotOwnership lotOwnership, PeerClient peerClient, ObjectMapper objectMapper,
+                           ParkingExecutors parkingExecutors) {
+        this.lotOwnership = lotOwnership;
+        this.peerClient = peerClient;
+        this.objectMapper = objectMapper;
+        this.readers = parkingExecutors.newPerTaskPool("peer-stream");
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!lotOwnership.isClustered()) return;
+        running = true;
+        lotOwnership.peers().forEach((node, baseUrl) -> {
+            if (baseUrl.isBlank()) {
+                log.warn("[PeerStreamRelay] Node {} has no URL; its lots are left out of the spot stream.", node);
+            } else {
+                readers.execute(() -> follow(node, baseUrl));
+            }
+        });
+    }
+
+    /** Sums the last known totals of one spot type over every connected peer. */
+    public Totals peerTotals(boolean smallCar) {
+        Totals sum = new Totals(0, 0);
+        for (SpotAvailability peer : peerTotals.values()) {
+            sum = sum.plus(smallCar ? peer.smallCar() : peer.largeCar());
+        }
+        return sum;
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        readers.shutdownNow();
+        openStreams.values().forEach(Stream::close);
+    }
+
+    // ─── Private Helpers ─────────────────────────────────────────────────────────
+
+    private void follow(int node, String baseUrl) {
+        long backoffMs = MIN_BACKOFF_MS;
+        while (running) {
+            try (Stream<String> lines = peerClient.openStream(baseUrl, NODE_STREAM)) {
+                openStreams.put(node, lines);
+                peerTotals.put(node, peerClient.get(baseUrl, NODE_AVAILABILITY, SpotAvailability.class));
+                log.info("[PeerStreamRelay] Following node {}.", node);
+                resync("node " + node + " connected");
+                backoffMs = MIN_BACKOFF_MS;
+                read(node, baseUrl, lines.iterator());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                if (running) log.debug("[PeerStreamRelay] Stream of node {} failed: {}", node, e.getMessage());
+            } finally {
+                openStreams.remove(node);
+                if (peerTotals.remove(node) != null && running) {
+                    log.warn("[PeerStreamRelay] Lost the stream of node {}; reconnecting.", node);
+                    resync("node " + node + " disconnected");
+                }
+            }
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+        }
+    }
+
+    // Minimal server-sent-event parser: "event:" and "data:" fields, dispatched on a blank line
+    private void read(int node, String baseUrl, Iterator<String> lines) throws Exception {
+        String event = null;
+        StringBuilder data = new StringBuilder();
+        while (running && lines.hasNext()) {
+            String line = lines.next();
+            if (line.isEmpty()) {
+                if (event != null) dispatch(node, baseUrl, event, data.toString());
+                event = null;
+                data.setLength(0);
+            } else if (line.startsWith("event:")) {
+                event = line.substring(6).trim();
+            } else if (line.startsWith("data:")) {
+                if (!data.isEmpty()) data.append('\n');
+                data.append(line.substring(line.startsWith("data: ") ? 6 : 5));
+            }
+            // ":" comments (heartbeats) and other fields are ignored
+        }
+    }
+
+    private void dispatch(int node, String baseUrl, String event, String data) throws Exception {
+        Listener target = listener;
+        switch (event) {
+            case "spot" -> {
+                SpotDelta delta = objectMapper.readValue(data, SpotDelta.class);
+                Totals type = new Totals(delta.typeAvailable(), delta.typeTotal());
+                peerTotals.computeIfPresent(node, (n, totals) -> delta.smallCarSpot()
+                        ? new SpotAvailability(type, totals.largeCar(), totals.unavailableNodes())
+                        : new SpotAvailability(totals.smallCar(), type, totals.unavailableNodes()));
+                if (target != null) target.peerDelta(delta);
+            }
+            case "resync" -> {
+                // The peer dropped events for us: start again from its current totals
+                peerTotals.put(node, peerClient.get(baseUrl, NODE_AVAILABILITY, SpotAvailability.class));
+                resync("node " + node + " resynced");
+            }
+            default -> log.debug("[PeerStreamRelay] Ignoring '{}' event from node {}.", event, node);
+        }
+    }
+
+    private void resync(String reason) {
+        Listener target = listener;
+        if (target != null) target.peerResync(reason);
+    }
+
+    // ─── Types ───────────────────────────────────────────────────────────────────
+
+    /** Receives the peers' events; SpotEventBroadcaster passes them on to cluster-scoped subscribers. */
+    public interface Listener {
+
+        /** A park / leave committed on a peer; its type counters cover that peer's lots only. */
+        void peerDelta(SpotDelta delta);
+
+        /** A peer's contribution changed in a way deltas do not describe. */
+        void peerResync(String reason);
+    }
+}
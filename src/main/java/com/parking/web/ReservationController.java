@@ -0,0 +1,50 @@
+package com.parking.web;
+
+import com.parking.service.SpotHoldService;
+import com.parking.web.dto.ParkRequest;
+import com.parking.web.dto.ReservationRequest;
+import com.parking.web.dto.ReservationResponse;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/reservations")
+public class ReservationController {
+
+    private final SpotHoldService spotHoldService;
+
+    public ReservationController(SpotHoldService spotHoldService) {
+        this.spotHoldService = spotHoldService;
+    }
+
+    /**
+     * Reserve the next free spot of a type for N minutes before arrival.
+     * Pass the returned token as holdToken to POST /api/park to park in the reserved spot.
+     * POST /api/reservations
+     */
+    @PostMapping
+    public ResponseEntity<ReservationResponse> reserve(@Valid @RequestBody ReservationRequest request) {
+        boolean isSmall = request.getCarType() == ParkRequest.CarType.SMALL;
+        return ResponseEntity.ok(new ReservationResponse(
+                spotHoldService.reserve(isSmall, Duration.ofMinutes(request.getMinutes()))
+        ));
+    }
+
+    /**
+     * Cancel a reservation and return its spot to the pool.
+     * DELETE /api/reservations/{token}
+     */
+    @DeleteMapping("/{token}")
+    public ResponseEntity<Map<String, Object>> release(@PathVariable String token) {
+        spotHoldService.release(token);
+        return ResponseEntity.ok(Map.of(
+                "token", token,
+                "success", true,
+                "message", "Reservation released"
+        ));
+    }
+}
@@ -0,0 +1,50 @@
+package com.parking.web;
+
+import com.parking.entity.RevenueRollup;
+import com.parking.service.RevenueRollupService;
+import com.parking.web.dto.RevenueBucketResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/revenue")
+public class RevenueController {
+
+    private final RevenueRollupService revenueRollupService;
+
+    public RevenueController(RevenueRollupService revenueRollupService) {
+        this.revenueRollupService = revenueRollupService;
+    }
+
+    /**
+     * Sum, count and average of successful payments, overall and by payment method and car type.
+     * Read from the hourly / daily rollups only.
+     * GET /api/revenue/summary?start=...&end=...
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<RevenueRollupService.Summary> getSummary(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return ResponseEntity.ok(revenueRollupService.summary(start, end));
+    }
+
+    /**
+     * Revenue per hour or day bucket, by payment method and car type.
+     * GET /api/revenue/series?start=...&end=...&granularity=DAY
+     */
+    @GetMapping("/series")
+    public ResponseEntity<List<RevenueBucketResponse>> getSeries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(defaultValue = "DAY") RevenueRollup.Granularity granularity) {
+        List<RevenueBucketResponse> responses = revenueRollupService.series(start, end, granularity)
+                .stream()
+                .map(RevenueBucketResponse::new)
+                .toList();
+        return ResponseEntity.ok(responses);
+    }
+}
@@ -18,10 +18,13 @@ public class RootController {
                 "endpoints", Map.of(
                         "park",         "POST /api/park",
                         "leave",        "POST /api/leave/{licensePlate}",
+                        "reservations", "POST /api/reservations | DELETE /api/reservations/{token}",
                         "payment",      "POST /api/payments/card | /cash",
+                        "revenue",      "GET  /api/revenue/summary | /api/revenue/series",
                         "inspections",  "GET  /api/inspections/lot/{id}",
-                        "admin",        "POST /api/admin/inspections",
-                        "availability", "GET  /api/spots/availability"
+                        "admin",        "POST /api/admin/inspections | /api/admin/lots",
+                        "availability", "GET  /api/spots/availability | /api/spots/history",
+                        "holds",        "POST /api/spots/hold | DELETE /api/spots/hold/{token}"
                 )
         ));
     }
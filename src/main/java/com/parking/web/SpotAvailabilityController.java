@@ -1,54 +1,139 @@
 package com.parking.web;
 
-import com.parking.entity.Car;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.parking.entity.ParkingSpot;
-import com.parking.repository.CarRepository;
+import com.parking.exception.NoAvailableSpotException;
 import com.parking.repository.LevelRepository;
 import com.parking.repository.ParkingSpotRepository;
+import com.parking.service.CarLookupCache;
+import com.parking.service.FreeSpotIndex;
+import com.parking.service.LevelOccupancyCounters;
+import com.parking.service.LotOwnership;
+import com.parking.service.OccupancySampler;
+import com.parking.service.PricingEngine;
+import com.parking.service.SpotHoldService;
+import com.parking.web.dto.SpotAvailability;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+/**
+ * Availability reads. The live ones (availability, stream, bitmap floor, history) come from in-memory state
+ * that each node keeps for the lots it owns only (see LotOwnership), so in a cluster they default to the
+ * whole cluster – gathered from the other nodes, or redirected to the owner – and report any node that could
+ * not be reached. {@code scope=node} restricts them to this node's lots; that is what the nodes ask each other.
+ */
 @RestController
 @RequestMapping("/api/spots")
 public class SpotAvailabilityController {
 
+    private static final String NODE_SCOPE = "node";
+    private static final String UNAVAILABLE_NODES_HEADER = "X-Unavailable-Nodes";
+
     private final LevelRepository levelRepository;
     private final ParkingSpotRepository parkingSpotRepository;
-    private final CarRepository carRepository;
+    private final CarLookupCache carLookupCache;
+    private final LevelOccupancyCounters levelOccupancyCounters;
+    private final FreeSpotIndex freeSpotIndex;
+    private final SpotEventBroadcaster spotEventBroadcaster;
+    private final SpotHoldService spotHoldService;
+    private final PricingEngine pricingEngine;
+    private final OccupancySampler occupancySampler;
+    private final LotOwnership lotOwnership;
+    private final PeerClient peerClient;
 
     public SpotAvailabilityController(LevelRepository levelRepository,
                                       ParkingSpotRepository parkingSpotRepository,
-                                      CarRepository carRepository) {
+                                      CarLookupCache carLookupCache,
+                                      LevelOccupancyCounters levelOccupancyCounters,
+                                      FreeSpotIndex freeSpotIndex,
+                                      SpotEventBroadcaster spotEventBroadcaster,
+                                      SpotHoldService spotHoldService,
+                                      PricingEngine pricingEngine,
+                                      OccupancySampler occupancySampler,
+                                      LotOwnership lotOwnership,
+                                      PeerClient peerClient) {
         this.levelRepository = levelRepository;
         this.parkingSpotRepository = parkingSpotRepository;
-        this.carRepository = carRepository;
+        this.carLookupCache = carLookupCache;
+        this.levelOccupancyCounters = levelOccupancyCounters;
+        this.freeSpotIndex = freeSpotIndex;
+        this.spotEventBroadcaster = spotEventBroadcaster;
+        this.spotHoldService = spotHoldService;
+        this.pricingEngine = pricingEngine;
+        this.occupancySampler = occupancySampler;
+        this.lotOwnership = lotOwnership;
+        this.peerClient = peerClient;
     }
 
-    /** GET /api/spots/availability */
+    /**
+     * GET /api/spots/availability[?scope=node]
+     * Served from the live level counters – no parking_spots rows are read. In a cluster the other nodes'
+     * counters are added in, and nodes that did not answer are listed as "unavailableNodes".
+     */
     @GetMapping("/availability")
-    public ResponseEntity<Map<String, Object>> getAvailability() {
-        List<ParkingSpot> smallSpots = parkingSpotRepository.findByIsSmallCarSpotOrderBySpotNumberAsc(true);
-        List<ParkingSpot> largeSpots = parkingSpotRepository.findByIsSmallCarSpotOrderBySpotNumberAsc(false);
+    public ResponseEntity<SpotAvailability> getAvailability(@RequestParam(required = false) String scope) {
+        LevelOccupancyCounters.Totals small = levelOccupancyCounters.totals(true);
+        LevelOccupancyCounters.Totals large = levelOccupancyCounters.totals(false);
+        if (!clusterScope(scope)) {
+            return ResponseEntity.ok(new SpotAvailability(small, large, List.of()));
+        }
 
-        long smallAvail = smallSpots.stream().filter(ps -> !ps.isOccupied()).count();
-        long largeAvail = largeSpots.stream().filter(ps -> !ps.isOccupied()).count();
+        PeerClient.FanOut<SpotAvailability> peers = peerClient.getFromPeers(
+                PeerStreamRelay.NODE_AVAILABILITY, new TypeReference<>() {});
+        for (SpotAvailability peer : peers.responses()) {
+            small = small.plus(peer.smallCar());
+            large = large.plus(peer.largeCar());
+        }
+        return ResponseEntity.ok(new SpotAvailability(small, large, peers.unavailableNodes()));
+    }
 
-        return ResponseEntity.ok(Map.of(
-                "smallCar", Map.of("available", smallAvail, "total", smallSpots.size()),
-                "largeCar", Map.of("available", largeAvail, "total", largeSpots.size())
-        ));
+    /**
+     * GET /api/spots/history?levelId=1[&start=...&end=...&step=5]
+     * Occupied spots of one level over time (default: the last hour, one point per minute), averaged per
+     * step minutes. Served from the in-memory per-minute samples; ranges older than those come from the
+     * compacted occupancy_rollups. No parking_spots rows are read. Only the node owning the level's lot samples
+     * it, so in a cluster other nodes redirect the request there.
+     */
+    @GetMapping("/history")
+    public ResponseEntity<OccupancySampler.History> getHistory(
+            @RequestParam Long levelId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(defaultValue = "1") int step) {
+        LocalDateTime until = end != null ? end : LocalDateTime.now();
+        LocalDateTime from = start != null ? start : until.minusHours(1);
+        if (lotOwnership.isClustered()) {
+            levelRepository.findParkingLotIdById(levelId).ifPresent(lotOwnership::checkOwned);
+        }
+        return ResponseEntity.ok(occupancySampler.history(levelId, from, until, step));
+    }
+
+    /**
+     * GET /api/spots/stream[?scope=node]
+     * Server-sent events: a "spot" event (SpotDelta) for every committed park / leave,
+     * or a single "resync" event if this client fell too far behind and should re-fetch.
+     * In a cluster the other nodes' events are relayed too, and a "resync" is also sent when a node
+     * joins or drops out of the totals.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(required = false) String scope) {
+        return spotEventBroadcaster.subscribe(NODE_SCOPE.equalsIgnoreCase(scope));
     }
 
     /**
      * GET /api/spots/floor?small=true
      * Returns every spot on the small-car floor (small=true) or large-car floor (small=false).
-     * Response: [ { "spotId": 1, "spotNumber": 1, "occupied": false }, ... ]
+     * Response: [ { "spotId": 1, "spotNumber": 1, "occupied": false, "reserved": false }, ... ]
      */
     @GetMapping("/floor")
     public ResponseEntity<List<Map<String, Object>>> getFloorSpots(
@@ -60,70 +145,132 @@ public class SpotAvailabilityController {
                 .map(spot -> Map.<String, Object>of(
                         "spotId",     spot.getId(),
                         "spotNumber", spot.getSpotNumber(),
-                        "occupied",   spot.isOccupied()
+                        "occupied",   spot.isOccupied(),
+                        "reserved",   spot.isReserved()
                 ))
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(spots);
     }
 
+    /**
+     * GET /api/spots/floor?small=true&format=bitmap
+     * Compact variant of the floor map built from the in-memory index, one entry per level:
+     * [ { "levelId": 1, "parkingLotId": 1, "firstSpotNumber": 1, "spotCount": 200, "occupied": "<base64>" } ]
+     * Bit i of the decoded bytes (little-endian) is set when spot number firstSpotNumber + i is taken;
+     * trailing free spots may be omitted from the byte array.
+     * In a cluster the other nodes' levels are gathered too; nodes that did not answer are listed in the
+     * X-Unavailable-Nodes header. scope=node returns this node's levels only.
+     */
+    @GetMapping(value = "/floor", params = "format=bitmap")
+    public ResponseEntity<List<FreeSpotIndex.LevelOccupancy>> getFloorBitmap(
+            @RequestParam(defaultValue = "true") boolean small,
+            @RequestParam(required = false) String scope) {
+        List<FreeSpotIndex.LevelOccupancy> levels = freeSpotIndex.occupancy(small);
+        if (!clusterScope(scope)) {
+            return ResponseEntity.ok(levels);
+        }
+
+        PeerClient.FanOut<List<FreeSpotIndex.LevelOccupancy>> peers = peerClient.getFromPeers(
+                "/api/spots/floor?format=bitmap&scope=node&small=" + small, new TypeReference<>() {});
+        List<FreeSpotIndex.LevelOccupancy> all = new ArrayList<>(levels);
+        peers.responses().forEach(all::addAll);
+        all.sort(Comparator.comparing(FreeSpotIndex.LevelOccupancy::parkingLotId));
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!peers.unavailableNodes().isEmpty()) {
+            response.header(UNAVAILABLE_NODES_HEADER, peers.unavailableNodes().stream()
+                    .map(String::valueOf).collect(Collectors.joining(",")));
+        }
+        return response.body(all);
+    }
+
     /**
      * GET /api/spots/preview?small=true
-     * Returns the next available spot (read-only, nothing is saved).
+     * Returns the next available spot straight from the allocator's index, without claiming it.
      */
     @GetMapping("/preview")
     public ResponseEntity<Map<String, Object>> previewNextSpot(
             @RequestParam(defaultValue = "true") boolean small) {
 
-        return parkingSpotRepository
-                .findByIsSmallCarSpotOrderBySpotNumberAsc(small)
-                .stream()
-                .filter(ps -> !ps.isOccupied())
-                .findFirst()
-                .map(spot -> ResponseEntity.ok(Map.<String, Object>of(
-                        "spotId",     spot.getId(),
-                        "spotNumber", spot.getSpotNumber()
+        return freeSpotIndex.peek(small)
+                .map(ref -> ResponseEntity.ok(Map.<String, Object>of(
+                        "spotId",     ref.spotId(),
+                        "spotNumber", ref.spotNumber()
                 )))
                 .orElseGet(() -> ResponseEntity.ok(Map.<String, Object>of(
                         "spotId", -1, "spotNumber", -1
                 )));
     }
 
+    /**
+     * POST /api/spots/hold?small=true
+     * Claims the next available spot for a short time, for a driver who has committed to parking.
+     * Passing the returned holdToken to POST /api/park guarantees that spot is the one assigned.
+     */
+    @PostMapping("/hold")
+    public ResponseEntity<Map<String, Object>> holdNextSpot(
+            @RequestParam(defaultValue = "true") boolean small) {
+
+        SpotHoldService.Hold hold = spotHoldService.hold(small)
+                .orElseThrow(() -> new NoAvailableSpotException(
+                        "No available spot for " + (small ? "small" : "large") + " car"));
+        return ResponseEntity.ok(Map.of(
+                "spotId",     hold.spot().spotId(),
+                "spotNumber", hold.spot().spotNumber(),
+                "holdToken",  hold.token(),
+                "expiresAt",  hold.expiresAt().toString()
+        ));
+    }
+
+    /**
+     * DELETE /api/spots/hold/{token}
+     * Gives a held spot back before its hold expires, e.g. when the driver backs out.
+     */
+    @DeleteMapping("/hold/{token}")
+    public ResponseEntity<Map<String, Object>> releaseHold(@PathVariable String token) {
+        spotHoldService.release(token);
+        return ResponseEntity.ok(Map.of(
+                "holdToken", token,
+                "success", true,
+                "message", "Hold released"
+        ));
+    }
+
     /**
      * GET /api/spots/quote/{licensePlate}
-     * Returns car info + amount due for a parked car — read-only, nothing is saved.
+     * Returns car info + amount due for a parked car, priced by the PricingEngine — read-only, nothing is saved.
      */
     @GetMapping("/quote/{licensePlate}")
     public ResponseEntity<?> getQuote(@PathVariable String licensePlate) {
-        Car car = carRepository.findByLicensePlate(licensePlate).orElse(null);
+        CarLookupCache.CarSnapshot car = carLookupCache.find(licensePlate).orElse(null);
 
         if (car == null) {
             return ResponseEntity.status(404)
                     .body(Map.of("message", "Car not found: " + licensePlate));
         }
-        if (!car.isParked()) {
+        if (!car.parked()) {
             return ResponseEntity.status(409)
                     .body(Map.of("message", "Car is not currently parked: " + licensePlate));
         }
 
-        // Compute elapsed hours from parkedSince — round up to nearest hour, min 1
-        LocalDateTime since = car.getParkedSince();
-        long elapsedMinutes = since != null
-                ? ChronoUnit.MINUTES.between(since, LocalDateTime.now())
-                : 60; // fallback: 1 hour if timestamp missing (legacy record)
-        long hours = Math.max(1, (long) Math.ceil(elapsedMinutes / 60.0));
-
-        double amount = (double) car.getHourlyRate() * hours;
+        PricingEngine.Quote quote = pricingEngine.quote(car, LocalDateTime.now());
 
         return ResponseEntity.ok(Map.of(
-                "carId",        car.getId(),
-                "licensePlate", car.getLicensePlate(),
-                "make",         car.getMake(),
-                "model",        car.getModel(),
-                "hourlyRate",   car.getHourlyRate(),
-                "hours",        hours,
-                "amountDue",    amount
+                "carId",        car.carId(),
+                "licensePlate", car.licensePlate(),
+                "make",         car.make(),
+                "model",        car.model(),
+                "hourlyRate",   car.hourlyRate(),
+                "minutes",      quote.minutes(),
+                "hours",        quote.billedHours(),
+                "amountDue",    quote.amountDue()
         ));
     }
-}
 
+    // ─── Private Helpers ─────────────────────────────────────────────────────────
+
+    private boolean clusterScope(String scope) {
+        return lotOwnership.isClustered() && !NODE_SCOPE.equalsIgnoreCase(scope);
+    }
+}
@@ -0,0 +1,205 @@
+package com.parking.web;
+
+import com.parking.config.ParkingExecutors;
+import com.parking.service.LevelOccupancyCounters;
+import com.parking.service.SpotOccupancyEvent;
+import com.parking.web.dto.SpotDelta;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans committed spot occupancy changes out to server-sent-event subscribers.
+ * Each subscriber has a bounded buffer drained by its own virtual thread, so a client whose socket
+ * stalls only blocks its own writer; once it falls a full buffer behind it loses its backlog and
+ * receives a single "resync" event instead.
+ * Node-scoped subscribers get this node's events with this node's type totals; the default, cluster-scoped
+ * subscribers also get the other nodes' events relayed by PeerStreamRelay, with type totals summed over every
+ * connected node, so in a cluster the stream never presents one node's share as the overall availability.
+ */
+@Slf4j
+@Component
+public class SpotEventBroadcaster implements PeerStreamRelay.Listener {
+
+    private static final StreamMessage HEARTBEAT = new StreamMessage(null, null);
+    private static final StreamMessage RESYNC = new StreamMessage("resync", "buffer overflow");
+
+    private final LevelOccupancyCounters levelOccupancyCounters;
+    private final PeerStreamRelay peerStreamRelay;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final ExecutorService writers;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public SpotEventBroadcaster(LevelOccupancyCounters levelOccupancyCounters,
+                                PeerStreamRelay peerStreamRelay,
+                                MeterRegistry meterRegistry,
+                                ParkingExecutors parkingExecutors,
+                                @Value("${parking.stream.buffer-size:256}") int bufferSize,
+                                @Value("${parking.stream.timeout-ms:1800000}") long timeoutMs) {
+        this.levelOccupancyCounters = levelOccupancyCounters;
+        this.peerStreamRelay = peerStreamRelay;
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.writers = parkingExecutors.newPerTaskPool("spot-stream");
+        Gauge.builder("parking.stream.subscribers", subscribers, Set::size)
+                .description("Connected availability stream clients")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void listenToPeers() {
+        peerStreamRelay.setListener(this);
+    }
+
+    /** {@code nodeScope}: only this node's lots, as read by the other nodes' PeerStreamRelay. */
+    public SseEmitter subscribe(boolean nodeScope) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, nodeScope);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCommit(SpotOccupancyEvent event) {
+        if (subscribers.isEmpty()) return;
+
+        // Runs after LevelOccupancyCounters has applied the same event
+        LevelOccupancyCounters.Totals level = levelOccupancyCounters.levelTotals(event.levelId());
+        LevelOccupancyCounters.Totals type = levelOccupancyCounters.totals(event.smallCarSpot());
+        SpotDelta delta = new SpotDelta(
+                event.spotId(), event.levelId(), event.parkingLotId(), event.smallCarSpot(), event.occupied(),
+                level.available(), level.total(), type.available(), type.total());
+        StreamMessage nodeMessage = new StreamMessage("spot", delta);
+        StreamMessage clusterMessage = clusterMessage(delta);
+
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(subscriber.nodeScope ? nodeMessage : clusterMessage);
+        }
+    }
+
+    @Override
+    public void peerDelta(SpotDelta delta) {
+        if (subscribers.isEmpty()) return;
+        offerToCluster(clusterMessage(delta));
+    }
+
+    @Override
+    public void peerResync(String reason) {
+        if (subscribers.isEmpty()) return;
+        offerToCluster(new StreamMessage("resync", reason));
+    }
+
+    /** Keeps idle connections open through proxies and flushes out clients that have gone away. */
+    @Scheduled(fixedDelayString = "${parking.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(HEARTBEAT);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    // ─── Private Helpers ─────────────────────────────────────────────────────────
+
+    // The delta with its type counters summed over this node and every connected peer
+    private StreamMessage clusterMessage(SpotDelta delta) {
+        LevelOccupancyCounters.Totals type = levelOccupancyCounters.totals(delta.smallCarSpot())
+                .plus(peerStreamRelay.peerTotals(delta.smallCarSpot()));
+        return new StreamMessage("spot", delta.withTypeTotals(type.available(), type.total()));
+    }
+
+    private void offerToCluster(StreamMessage message) {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.nodeScope) subscriber.offer(message);
+        }
+    }
+
+    // ─── Types ───────────────────────────────────────────────────────────────────
+
+    private record StreamMessage(String name, Object data) {
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final boolean nodeScope;
+        private final ArrayBlockingQueue<StreamMessage> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, boolean nodeScope) {
+            this.emitter = emitter;
+            this.nodeScope = nodeScope;
+        }
+
+        private void offer(StreamMessage message) {
+            if (!buffer.offer(message)) {
+                // Slow client: drop its backlog and let it re-fetch the floor instead
+                buffer.clear();
+                buffer.offer(RESYNC);
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) return;
+            try {
+                writers.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                StreamMessage message;
+                while ((message = buffer.poll()) != null) {
+                    emitter.send(message == HEARTBEAT
+                            ? SseEmitter.event().comment("heartbeat")
+                            : SseEmitter.event().name(message.name()).data(message.data()));
+                }
+            } catch (Exception e) {
+                log.debug("[SpotEventBroadcaster] Dropping subscriber: {}", e.getMessage());
+                subscribers.remove(this);
+                // Ends the async request now rather than at the emitter timeout
+                emitter.completeWithError(e);
+                return;
+            }
+            draining.set(false);
+            if (!buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
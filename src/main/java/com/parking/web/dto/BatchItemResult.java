@@ -0,0 +1,32 @@
+package com.parking.web.dto;
+
+import com.parking.entity.ParkingSpot;
+import lombok.Getter;
+
+@Getter
+public class BatchItemResult {
+
+    private final String licensePlate;
+    private final boolean success;
+    private final ParkingSpotResponse spot; // set for successful parks only
+    private final String message;
+
+    private BatchItemResult(String licensePlate, boolean success, ParkingSpotResponse spot, String message) {
+        this.licensePlate = licensePlate;
+        this.success = success;
+        this.spot = spot;
+        this.message = message;
+    }
+
+    public static BatchItemResult parked(String licensePlate, ParkingSpot spot) {
+        return new BatchItemResult(licensePlate, true, new ParkingSpotResponse(spot), "Car parked");
+    }
+
+    public static BatchItemResult left(String licensePlate) {
+        return new BatchItemResult(licensePlate, true, null, "Car successfully left the parking spot");
+    }
+
+    public static BatchItemResult failed(String licensePlate, String message) {
+        return new BatchItemResult(licensePlate, false, null, message);
+    }
+}
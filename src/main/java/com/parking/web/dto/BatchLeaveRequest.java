@@ -0,0 +1,16 @@
+package com.parking.web.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchLeaveRequest {
+
+    @NotEmpty(message = "At least one license plate is required")
+    @Size(max = 1000, message = "At most 1000 license plates per batch")
+    private List<@NotBlank(message = "License plate is required") String> licensePlates;
+}
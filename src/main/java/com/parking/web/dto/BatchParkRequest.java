@@ -0,0 +1,16 @@
+package com.parking.web.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchParkRequest {
+
+    @NotEmpty(message = "At least one park request is required")
+    @Size(max = 1000, message = "At most 1000 requests per batch")
+    private List<@Valid ParkRequest> requests;
+}
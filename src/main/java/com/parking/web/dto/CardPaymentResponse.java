@@ -1,6 +1,7 @@
 package com.parking.web.dto;
 
 import com.parking.entity.CardPayment;
+import com.parking.repository.CardPaymentView;
 import lombok.Getter;
 
 import java.time.LocalDateTime;
@@ -16,6 +17,8 @@ public class CardPaymentResponse {
     private final String transactionId;
     private final boolean successful;
     private final LocalDateTime paymentTimestamp;
+    private final String receiptNumber;
+    private final LocalDateTime settledAt;
 
     public CardPaymentResponse(CardPayment payment) {
         this.id = payment.getId();
@@ -26,6 +29,21 @@ public class CardPaymentResponse {
         this.transactionId = payment.getTransactionId();
         this.successful = payment.isSuccessful();
         this.paymentTimestamp = payment.getPaymentTimestamp();
+        this.receiptNumber = payment.getReceiptNumber();
+        this.settledAt = payment.getSettledAt();
+    }
+
+    public CardPaymentResponse(CardPaymentView view) {
+        this.id = view.getId();
+        this.carId = view.getCarId();
+        this.licensePlate = view.getLicensePlate();
+        this.amount = view.getAmount();
+        this.cardNumber = view.getCardNumber();
+        this.transactionId = view.getTransactionId();
+        this.successful = view.isSuccessful();
+        this.paymentTimestamp = view.getPaymentTimestamp();
+        this.receiptNumber = view.getReceiptNumber();
+        this.settledAt = view.getSettledAt();
     }
 }
 
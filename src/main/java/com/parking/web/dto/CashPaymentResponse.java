@@ -1,6 +1,7 @@
 package com.parking.web.dto;
 
 import com.parking.entity.CashPayment;
+import com.parking.repository.CashPaymentView;
 import lombok.Getter;
 
 import java.time.LocalDateTime;
@@ -16,6 +17,8 @@ public class CashPaymentResponse {
     private final double changeGiven;
     private final boolean successful;
     private final LocalDateTime paymentTimestamp;
+    private final String receiptNumber;
+    private final LocalDateTime settledAt;
 
     public CashPaymentResponse(CashPayment payment) {
         this.id = payment.getId();
@@ -26,6 +29,21 @@ public class CashPaymentResponse {
         this.changeGiven = payment.getChangeGiven();
         this.successful = payment.isSuccessful();
         this.paymentTimestamp = payment.getPaymentTimestamp();
+        this.receiptNumber = payment.getReceiptNumber();
+        this.settledAt = payment.getSettledAt();
+    }
+
+    public CashPaymentResponse(CashPaymentView view) {
+        this.id = view.getId();
+        this.carId = view.getCarId();
+        this.licensePlate = view.getLicensePlate();
+        this.amount = view.getAmount();
+        this.cashReceived = view.getCashReceived();
+        this.changeGiven = view.getChangeGiven();
+        this.successful = view.isSuccessful();
+        this.paymentTimestamp = view.getPaymentTimestamp();
+        this.receiptNumber = view.getReceiptNumber();
+        this.settledAt = view.getSettledAt();
     }
 }
 
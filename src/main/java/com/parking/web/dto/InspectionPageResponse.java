@@ -0,0 +1,19 @@
+package com.parking.web.dto;
+
+import com.parking.service.InspectionPage;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class InspectionPageResponse {
+
+    private final List<InspectionRecordResponse> items;
+    // Pass back as ?cursor= for the next page; null on the last page
+    private final String nextCursor;
+
+    public InspectionPageResponse(InspectionPage page) {
+        this.items = page.records().stream().map(InspectionRecordResponse::new).toList();
+        this.nextCursor = page.nextCursor();
+    }
+}
@@ -1,6 +1,7 @@
 package com.parking.web.dto;
 
 import com.parking.entity.InspectionRecord;
+import com.parking.repository.InspectionRecordView;
 import lombok.Getter;
 
 import java.time.LocalDateTime;
@@ -35,5 +36,20 @@ public class InspectionRecordResponse {
         this.status = record.getStatus().name();
         this.notes = record.getNotes();
     }
+
+    public InspectionRecordResponse(InspectionRecordView view) {
+        this.id = view.getId();
+        this.parkingLotId = view.getParkingLotId();
+        this.parkingLotName = view.getParkingLotName();
+        this.adminId = view.getAdminId();
+        this.adminUsername = view.getAdminUsername();
+        this.inspectionTime = view.getInspectionTime();
+        this.totalSpots = view.getTotalSpots();
+        this.occupiedSpots = view.getOccupiedSpots();
+        this.availableSpots = view.getAvailableSpots();
+        this.occupancyRate = view.getOccupancyRate();
+        this.status = view.getStatus().name();
+        this.notes = view.getNotes();
+    }
 }
 
@@ -21,6 +21,10 @@ public class ParkRequest {
 
     private int hourlyRate = 5; // default rate, can be overridden
 
+    private String holdToken; // optional, from POST /api/spots/hold or POST /api/reservations
+
+    private Long parkingLotId; // optional; restricts allocation to one lot, served only by the node that owns it
+
     public enum CarType {
         SMALL, LARGE
     }
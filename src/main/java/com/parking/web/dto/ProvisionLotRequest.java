@@ -0,0 +1,42 @@
+package com.parking.web.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+public class ProvisionLotRequest {
+
+    @NotBlank(message = "Lot name is required")
+    private String name;
+
+    private String location;
+
+    @NotEmpty(message = "At least one level is required")
+    @Size(max = 200, message = "At most 200 levels per lot")
+    @Valid
+    private List<LevelSpec> levels;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LevelSpec {
+
+        @Positive(message = "Level number must be positive")
+        private int levelNumber;
+
+        private boolean smallCarLevel;
+
+        @Positive(message = "Spot count must be positive")
+        @Max(value = 10000, message = "At most 10000 spots per level")
+        private int spotCount;
+    }
+}
@@ -0,0 +1,15 @@
+package com.parking.web.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class ReservationRequest {
+
+    @NotNull(message = "Car type is required: SMALL or LARGE")
+    private ParkRequest.CarType carType;
+
+    @Positive(message = "Minutes must be positive")
+    private int minutes = 15;
+}
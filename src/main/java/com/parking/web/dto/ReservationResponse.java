@@ -0,0 +1,26 @@
+package com.parking.web.dto;
+
+import com.parking.service.SpotHoldService;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+public class ReservationResponse {
+
+    private final String token;
+    private final Long spotId;
+    private final int spotNumber;
+    private final Long levelId;
+    private final boolean isSmallCarSpot;
+    private final Instant expiresAt;
+
+    public ReservationResponse(SpotHoldService.Hold hold) {
+        this.token = hold.token();
+        this.spotId = hold.spot().spotId();
+        this.spotNumber = hold.spot().spotNumber();
+        this.levelId = hold.spot().levelId();
+        this.isSmallCarSpot = hold.spot().smallCarSpot();
+        this.expiresAt = hold.expiresAt();
+    }
+}
@@ -0,0 +1,27 @@
+package com.parking.web.dto;
+
+import com.parking.entity.RevenueRollup;
+import com.parking.entity.SettlementTask;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+public class RevenueBucketResponse {
+
+    private final LocalDateTime bucketStart;
+    private final RevenueRollup.Granularity granularity;
+    private final SettlementTask.PaymentMethod paymentMethod;
+    private final RevenueRollup.CarType carType;
+    private final long paymentCount;
+    private final double totalAmount;
+
+    public RevenueBucketResponse(RevenueRollup rollup) {
+        this.bucketStart = rollup.getId().getBucketStart();
+        this.granularity = rollup.getId().getGranularity();
+        this.paymentMethod = rollup.getId().getPaymentMethod();
+        this.carType = rollup.getId().getCarType();
+        this.paymentCount = rollup.getPaymentCount();
+        this.totalAmount = Math.round(rollup.getTotalAmount() * 100) / 100.0;
+    }
+}
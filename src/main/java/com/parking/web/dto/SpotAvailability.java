@@ -0,0 +1,15 @@
+package com.parking.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.parking.service.LevelOccupancyCounters.Totals;
+
+import java.util.List;
+
+/**
+ * Free and total spots per car type, as served by /api/spots/availability. In a cluster,
+ * {@code unavailableNodes} lists the nodes whose lots could not be counted in; it is omitted when none are missing.
+ */
+public record SpotAvailability(Totals smallCar,
+                               Totals largeCar,
+                               @JsonInclude(JsonInclude.Include.NON_EMPTY) List<Integer> unavailableNodes) {
+}
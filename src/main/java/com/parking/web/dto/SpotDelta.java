@@ -0,0 +1,22 @@
+package com.parking.web.dto;
+
+/**
+ * One occupancy change pushed on /api/spots/stream, with the affected level's and spot type's counters
+ * so a client can repaint without re-fetching the floor.
+ */
+public record SpotDelta(Long spotId,
+                        Long levelId,
+                        Long parkingLotId,
+                        boolean smallCarSpot,
+                        boolean occupied,
+                        int levelAvailable,
+                        int levelTotal,
+                        int typeAvailable,
+                        int typeTotal) {
+
+    /** The same change, with the spot type's counters taken over a different set of lots. */
+    public SpotDelta withTypeTotals(int available, int total) {
+        return new SpotDelta(spotId, levelId, parkingLotId, smallCarSpot, occupied, levelAvailable, levelTotal,
+                available, total);
+    }
+}
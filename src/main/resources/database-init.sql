@@ -6,6 +6,10 @@
 -- ----------------------------------------------------------------
 -- Drop tables in reverse dependency order (idempotent re-run)
 -- ----------------------------------------------------------------
+DROP TABLE IF EXISTS occupancy_rollups   CASCADE;
+DROP TABLE IF EXISTS revenue_rollups     CASCADE;
+DROP TABLE IF EXISTS data_migrations     CASCADE;
+DROP TABLE IF EXISTS settlement_tasks    CASCADE;
 DROP TABLE IF EXISTS card_payments       CASCADE;
 DROP TABLE IF EXISTS cash_payments       CASCADE;
 DROP TABLE IF EXISTS inspection_records  CASCADE;
@@ -15,6 +19,10 @@ DROP TABLE IF EXISTS parking_lots        CASCADE;
 DROP TABLE IF EXISTS cars                CASCADE;
 DROP TABLE IF EXISTS admins              CASCADE;
 
+DROP SEQUENCE IF EXISTS parking_lots_seq, levels_seq, parking_spots_seq, cars_seq,
+                        inspection_records_seq, card_payments_seq, cash_payments_seq,
+                        settlement_tasks_seq, occupancy_rollups_seq;
+
 -- ----------------------------------------------------------------
 -- ENUM types
 -- ----------------------------------------------------------------
@@ -31,6 +39,21 @@ BEGIN
     END IF;
 END$$;
 
+-- ----------------------------------------------------------------
+-- Id sequences
+--   Hibernate allocates ids in pooled blocks of 50 (allocationSize),
+--   which keeps JDBC insert batching enabled. INCREMENT must match.
+-- ----------------------------------------------------------------
+CREATE SEQUENCE parking_lots_seq        INCREMENT BY 50;
+CREATE SEQUENCE levels_seq              INCREMENT BY 50;
+CREATE SEQUENCE parking_spots_seq       INCREMENT BY 50;
+CREATE SEQUENCE cars_seq                INCREMENT BY 50;
+CREATE SEQUENCE inspection_records_seq  INCREMENT BY 50;
+CREATE SEQUENCE card_payments_seq       INCREMENT BY 50;
+CREATE SEQUENCE cash_payments_seq       INCREMENT BY 50;
+CREATE SEQUENCE settlement_tasks_seq    INCREMENT BY 50;
+CREATE SEQUENCE occupancy_rollups_seq   INCREMENT BY 50;
+
 -- ----------------------------------------------------------------
 -- admins
 --   Maps to: com.parking.entity.Admin
@@ -51,7 +74,7 @@ CREATE TABLE admins (
 --   Maps to: com.parking.entity.ParkingLot
 -- ----------------------------------------------------------------
 CREATE TABLE parking_lots (
-    id          BIGSERIAL   PRIMARY KEY,
+    id          BIGINT      PRIMARY KEY DEFAULT nextval('parking_lots_seq'),
     name        TEXT        NOT NULL,
     location    TEXT
 );
@@ -62,7 +85,7 @@ CREATE TABLE parking_lots (
 --   Belongs to a ParkingLot; owns many ParkingSpots
 -- ----------------------------------------------------------------
 CREATE TABLE levels (
-    id                  BIGSERIAL   PRIMARY KEY,
+    id                  BIGINT      PRIMARY KEY DEFAULT nextval('levels_seq'),
     level_number        INTEGER     NOT NULL,
     total_spots         INTEGER     NOT NULL,
     available_spots     INTEGER     NOT NULL,
@@ -77,10 +100,12 @@ CREATE TABLE levels (
 --   Belongs to a Level
 -- ----------------------------------------------------------------
 CREATE TABLE parking_spots (
-    id                  BIGSERIAL   PRIMARY KEY,
+    id                  BIGINT      PRIMARY KEY DEFAULT nextval('parking_spots_seq'),
     spot_number         INTEGER     NOT NULL,
     is_small_car_spot   BOOLEAN     NOT NULL DEFAULT FALSE,
     is_occupied         BOOLEAN     NOT NULL DEFAULT FALSE,
+    reservation_token   TEXT,                   -- set while a driver holds the spot
+    reserved_until      TIMESTAMP,
     level_id            BIGINT      NOT NULL
         REFERENCES levels(id) ON DELETE CASCADE
 );
@@ -91,7 +116,7 @@ CREATE TABLE parking_spots (
 --   Subclasses: SmallCar (car_type = 'SMALL'), LargeCar (car_type = 'LARGE')
 -- ----------------------------------------------------------------
 CREATE TABLE cars (
-    id              BIGSERIAL   PRIMARY KEY,
+    id              BIGINT      PRIMARY KEY DEFAULT nextval('cars_seq'),
     car_type        car_type    NOT NULL,                  -- discriminator column
     make            TEXT        NOT NULL,
     model           TEXT        NOT NULL,
@@ -109,7 +134,7 @@ CREATE TABLE cars (
 --   References: parking_lots, admins
 -- ----------------------------------------------------------------
 CREATE TABLE inspection_records (
-    id                  BIGSERIAL           PRIMARY KEY,
+    id                  BIGINT              PRIMARY KEY DEFAULT nextval('inspection_records_seq'),
     parking_lot_id      BIGINT              NOT NULL
         REFERENCES parking_lots(id) ON DELETE CASCADE,
     admin_id            BIGINT              NOT NULL
@@ -128,14 +153,16 @@ CREATE TABLE inspection_records (
 --   References: cars
 -- ----------------------------------------------------------------
 CREATE TABLE card_payments (
-    id                  BIGSERIAL   PRIMARY KEY,
+    id                  BIGINT      PRIMARY KEY DEFAULT nextval('card_payments_seq'),
     car_id              BIGINT      NOT NULL
         REFERENCES cars(id),
     amount              NUMERIC(10, 2) NOT NULL,
     card_number         TEXT        NOT NULL,   -- store last 4 digits only
     transaction_id      TEXT        NOT NULL,
     successful          BOOLEAN     NOT NULL DEFAULT FALSE,
-    payment_timestamp   TIMESTAMP   NOT NULL DEFAULT NOW()
+    payment_timestamp   TIMESTAMP   NOT NULL DEFAULT NOW(),
+    receipt_number      TEXT,                   -- set once settled
+    settled_at          TIMESTAMP
 );
 
 -- ----------------------------------------------------------------
@@ -144,28 +171,105 @@ CREATE TABLE card_payments (
 --   References: cars
 -- ----------------------------------------------------------------
 CREATE TABLE cash_payments (
-    id                  BIGSERIAL   PRIMARY KEY,
+    id                  BIGINT      PRIMARY KEY DEFAULT nextval('cash_payments_seq'),
     car_id              BIGINT      NOT NULL
         REFERENCES cars(id),
     amount              NUMERIC(10, 2) NOT NULL,
     cash_received       NUMERIC(10, 2) NOT NULL,
     change_given        NUMERIC(10, 2) NOT NULL DEFAULT 0,
     successful          BOOLEAN     NOT NULL DEFAULT FALSE,
-    payment_timestamp   TIMESTAMP   NOT NULL DEFAULT NOW()
+    payment_timestamp   TIMESTAMP   NOT NULL DEFAULT NOW(),
+    receipt_number      TEXT,                   -- set once settled
+    settled_at          TIMESTAMP
+);
+
+-- ----------------------------------------------------------------
+-- settlement_tasks
+--   Maps to: com.parking.entity.SettlementTask
+--   Outbox drained by PaymentSettlementService (payment_id points
+--   into card_payments or cash_payments depending on payment_method)
+-- ----------------------------------------------------------------
+CREATE TABLE settlement_tasks (
+    id                  BIGINT      PRIMARY KEY DEFAULT nextval('settlement_tasks_seq'),
+    payment_method      TEXT        NOT NULL,   -- CARD | CASH
+    payment_id          BIGINT      NOT NULL,
+    status              TEXT        NOT NULL DEFAULT 'PENDING',
+    attempts            INTEGER     NOT NULL DEFAULT 0,
+    next_attempt_at     TIMESTAMP   NOT NULL DEFAULT NOW(),   -- lease expiry while IN_PROGRESS
+    last_error          VARCHAR(1000),
+    created_at          TIMESTAMP   NOT NULL DEFAULT NOW(),
+    completed_at        TIMESTAMP
+);
+
+-- ----------------------------------------------------------------
+-- revenue_rollups
+--   Maps to: com.parking.entity.RevenueRollup
+--   Successful payments summed per HOUR / DAY bucket, upserted by
+--   RevenueRollupService in the payment's transaction
+-- ----------------------------------------------------------------
+CREATE TABLE revenue_rollups (
+    granularity         TEXT        NOT NULL,   -- HOUR | DAY
+    bucket_start        TIMESTAMP   NOT NULL,
+    payment_method      TEXT        NOT NULL,   -- CARD | CASH
+    car_type            TEXT        NOT NULL,   -- SMALL | LARGE
+    payment_count       BIGINT      NOT NULL DEFAULT 0,
+    total_amount        NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (granularity, bucket_start, payment_method, car_type)
+);
+
+-- ----------------------------------------------------------------
+-- data_migrations
+--   One row per one-off data migration that has been applied
+--   (e.g. revenue_rollups_backfill, see RevenueRollupService)
+-- ----------------------------------------------------------------
+CREATE TABLE data_migrations (
+    name                VARCHAR(100) PRIMARY KEY,
+    applied_at          TIMESTAMP   NOT NULL DEFAULT NOW()
+);
+
+-- ----------------------------------------------------------------
+-- occupancy_rollups
+--   Maps to: com.parking.entity.OccupancyRollup
+--   Per-level occupied counts downsampled from OccupancySampler's
+--   per-minute samples (min / max / average per bucket)
+-- ----------------------------------------------------------------
+CREATE TABLE occupancy_rollups (
+    id                  BIGINT      PRIMARY KEY DEFAULT nextval('occupancy_rollups_seq'),
+    level_id            BIGINT      NOT NULL,
+    parking_lot_id      BIGINT      NOT NULL,
+    bucket_start        TIMESTAMP   NOT NULL,
+    bucket_minutes      INTEGER     NOT NULL,
+    samples             INTEGER     NOT NULL,
+    min_occupied        INTEGER     NOT NULL,
+    max_occupied        INTEGER     NOT NULL,
+    avg_occupied        DOUBLE PRECISION NOT NULL,
+    total_spots         INTEGER     NOT NULL
 );
 
 -- ----------------------------------------------------------------
 -- Indexes for common query patterns
 -- ----------------------------------------------------------------
 CREATE INDEX idx_levels_parking_lot         ON levels(parking_lot_id);
-CREATE INDEX idx_spots_level                ON parking_spots(level_id);
-CREATE INDEX idx_spots_occupied             ON parking_spots(is_occupied);
-CREATE INDEX idx_spots_small_car            ON parking_spots(is_small_car_spot);
+CREATE INDEX idx_spots_level_occupied       ON parking_spots(level_id, is_occupied);
 CREATE INDEX idx_cars_license_plate         ON cars(license_plate);
 CREATE INDEX idx_cars_parking_spot          ON cars(parking_spot_id);
-CREATE INDEX idx_inspection_parking_lot     ON inspection_records(parking_lot_id);
+CREATE INDEX idx_inspection_parking_lot     ON inspection_records(parking_lot_id, inspection_time DESC, id DESC);
 CREATE INDEX idx_inspection_admin           ON inspection_records(admin_id);
-CREATE INDEX idx_inspection_time            ON inspection_records(inspection_time DESC);
+CREATE INDEX idx_inspection_time            ON inspection_records(inspection_time DESC, id DESC);
+CREATE INDEX idx_inspection_status          ON inspection_records(status, inspection_time DESC, id DESC);
 CREATE INDEX idx_card_payments_car          ON card_payments(car_id);
+CREATE INDEX idx_card_payments_timestamp    ON card_payments(payment_timestamp);
+CREATE UNIQUE INDEX idx_card_payments_transaction ON card_payments(transaction_id);
 CREATE INDEX idx_cash_payments_car          ON cash_payments(car_id);
+CREATE INDEX idx_cash_payments_timestamp    ON cash_payments(payment_timestamp);
+CREATE INDEX idx_settlement_tasks_due       ON settlement_tasks(status, next_attempt_at);
+CREATE INDEX idx_settlement_tasks_payment   ON settlement_tasks(payment_method, payment_id);
+CREATE UNIQUE INDEX idx_occupancy_rollups_level ON occupancy_rollups(level_id, bucket_start);
+
+-- Partial indexes: only the rows the allocator and reservation restore look for
+-- (kept in sync by DataInitializer.createPartialIndexes on existing databases)
+CREATE INDEX idx_spots_free_by_type         ON parking_spots(is_small_car_spot, spot_number)
+    WHERE is_occupied = FALSE;
+CREATE INDEX idx_spots_reserved             ON parking_spots(reservation_token)
+    WHERE reservation_token IS NOT NULL;
 
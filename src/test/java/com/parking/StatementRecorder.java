@@ -0,0 +1,59 @@
+package com.parking;
+
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wraps the application's DataSource so that the statements a piece of test code sends are captured with
+ * their bind values. Only the calling thread is recorded, so the scheduled jobs running in the background
+ * never show up. Add it to a test context with {@code @Import(StatementRecorder.class)}.
+ */
+public class StatementRecorder implements BeanPostProcessor {
+
+    /** Test code whose statements are recorded. */
+    @FunctionalInterface
+    public interface Call {
+        void run() throws Exception;
+    }
+
+    private final ThreadLocal<List<QueryInfo>> recording = new ThreadLocal<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name("statement-recorder")
+                    .afterQuery((execution, queries) -> {
+                        List<QueryInfo> recorded = recording.get();
+                        if (recorded != null) {
+                            recorded.addAll(queries);
+                        }
+                    })
+                    .build();
+        }
+        return bean;
+    }
+
+    /** Runs the call and returns every statement it sent, in order. */
+    public List<QueryInfo> record(Call call) throws Exception {
+        List<QueryInfo> recorded = new ArrayList<>();
+        recording.set(recorded);
+        try {
+            call.run();
+        } finally {
+            recording.remove();
+        }
+        return recorded;
+    }
+
+    /** The recorded DataSource's target, for statements that must not be recorded themselves. */
+    public static DataSource unwrap(DataSource dataSource) {
+        return dataSource instanceof ProxyDataSource proxy ? proxy.getDataSource() : dataSource;
+    }
+}
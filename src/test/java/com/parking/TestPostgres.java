@@ -0,0 +1,66 @@
+package com.parking;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * A real PostgreSQL for tests that depend on its planner or SQL dialect, started from the PostgreSQL
+ * binaries that embedded-postgres ships as a test dependency, so it runs wherever {@code mvn test} runs,
+ * without Docker. One server is shared by the whole test JVM and stops with it; each test class names its
+ * own database, so cached Spring contexts never drop each other's schema. Wire it in from a
+ * {@code @DynamicPropertySource} method calling {@link #register}, and mark the class {@code @DirtiesContext}:
+ * a context left for JVM exit races the server's shutdown and waits out the pool timeout on its schema drop.
+ */
+public final class TestPostgres {
+
+    private static EmbeddedPostgres server;
+
+    private TestPostgres() {
+    }
+
+    /** Points the application's DataSource at {@code database}, creating it on first use. */
+    public static void register(DynamicPropertyRegistry registry, String database) {
+        EmbeddedPostgres postgres = server();
+        createDatabase(postgres, database);
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", database));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    // ─── Private Helpers ─────────────────────────────────────────────────────────
+
+    private static synchronized EmbeddedPostgres server() {
+        if (server == null) {
+            try {
+                server = EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start embedded PostgreSQL", e);
+            }
+        }
+        return server;
+    }
+
+    private static void createDatabase(EmbeddedPostgres postgres, String database) {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             PreparedStatement exists = connection.prepareStatement("SELECT 1 FROM pg_database WHERE datname = ?")) {
+            exists.setString(1, database);
+            try (ResultSet rows = exists.executeQuery()) {
+                if (rows.next()) return;
+            }
+            try (Statement create = connection.createStatement()) {
+                create.execute("CREATE DATABASE \"" + database + "\"");
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not create test database " + database, e);
+        }
+    }
+}
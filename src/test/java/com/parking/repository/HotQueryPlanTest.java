@@ -0,0 +1,201 @@
+package com.parking.repository;
+
+import com.parking.StatementRecorder;
+import com.parking.TestPostgres;
+import com.parking.entity.InspectionRecord;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the hot repository queries against losing their index, on an embedded PostgreSQL (see
+ * {@link TestPostgres}) so it runs with every build. The schema comes from the entity mappings
+ * and DataInitializer, exactly as in production; the tables are then filled with a few hundred thousand rows
+ * and ANALYZEd so the planner costs them realistically. Each repository method is called once, the SQL and
+ * bind values it sends are captured at the JDBC layer, and that same statement is EXPLAINed. A Seq Scan on
+ * any of the large tables fails the test.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "parking.seed.enabled=false"
+        })
+@Import(StatementRecorder.class)
+@DirtiesContext
+class HotQueryPlanTest {
+
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (\\w+)");
+
+    // Small lookup tables (lots, levels, admins, rollups) may legitimately be scanned and hashed
+    private static final Set<String> LARGE_TABLES = Set.of(
+            "parking_spots", "cars", "card_payments", "cash_payments", "inspection_records", "settlement_tasks");
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        TestPostgres.register(registry, "hot_query_plans");
+    }
+
+    @Autowired private CarRepository carRepository;
+    @Autowired private ParkingSpotRepository parkingSpotRepository;
+    @Autowired private CardPaymentRepository cardPaymentRepository;
+    @Autowired private CashPaymentRepository cashPaymentRepository;
+    @Autowired private InspectionRecordRepository inspectionRecordRepository;
+    @Autowired private SettlementTaskRepository settlementTaskRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private DataSource dataSource;
+    @Autowired private StatementRecorder recorder;
+
+    private final List<String> regressions = new ArrayList<>();
+
+    @Test
+    void hotQueriesAreServedByAnIndex() throws Exception {
+        seed();
+        LocalDateTime noon = START.plusDays(60).withHour(12);
+        LocalDateTime hourLater = noon.plusHours(1);
+
+        // Park / leave / holds
+        plan("CarRepository.findByLicensePlate", () -> carRepository.findByLicensePlate("CAR-4242"));
+        plan("CarRepository.findWithSpotByLicensePlate", () -> carRepository.findWithSpotByLicensePlate("CAR-4242"));
+        plan("CarRepository.findByLicensePlateInWithSpot",
+                () -> carRepository.findByLicensePlateInWithSpot(List.of("CAR-10", "CAR-20", "CAR-30")));
+        plan("ParkingSpotRepository.claimAllIfFree",
+                () -> transactionTemplate.execute(s -> parkingSpotRepository.claimAllIfFree(List.of(3L, 5L, 7L))));
+        plan("ParkingSpotRepository.findWithLevelByIdIn",
+                () -> parkingSpotRepository.findWithLevelByIdIn(List.of(3L, 5L, 7L)));
+        plan("ParkingSpotRepository.findByReservationTokenIsNotNull",
+                () -> parkingSpotRepository.findByReservationTokenIsNotNull());
+        plan("ParkingSpotRepository.findSpotStatesByParkingLotId",
+                () -> parkingSpotRepository.findSpotStatesByParkingLotId(42L));
+
+        // Payments
+        plan("CardPaymentRepository.findViewByTransactionId",
+                () -> cardPaymentRepository.findViewByTransactionId("TXN4242"));
+        plan("CardPaymentRepository.findViewsByCarId", () -> cardPaymentRepository.findViewsByCarId(4242L));
+        plan("CardPaymentRepository.findViewsByPaymentTimestampBetween",
+                () -> cardPaymentRepository.findViewsByPaymentTimestampBetween(noon, hourLater));
+        plan("CashPaymentRepository.findViewsByCarId", () -> cashPaymentRepository.findViewsByCarId(4242L));
+        plan("CashPaymentRepository.findViewsByPaymentTimestampBetween",
+                () -> cashPaymentRepository.findViewsByPaymentTimestampBetween(noon, hourLater));
+        plan("SettlementTaskRepository.lockDue",
+                () -> transactionTemplate.execute(s -> settlementTaskRepository.lockDue(START.plusYears(2), 50)));
+
+        // Inspection keyset pages
+        LocalDateTime before = START.plusDays(100);
+        plan("InspectionRecordRepository.findPageByParkingLot",
+                () -> inspectionRecordRepository.findPageByParkingLot(42L, before, Long.MAX_VALUE, Limit.of(51)));
+        plan("InspectionRecordRepository.findPageByStatus",
+                () -> inspectionRecordRepository.findPageByStatus(InspectionRecord.InspectionStatus.FAILED,
+                        before, Long.MAX_VALUE, Limit.of(51)));
+        plan("InspectionRecordRepository.findPageByInspectionTimeBetween",
+                () -> inspectionRecordRepository.findPageByInspectionTimeBetween(noon, noon.plusDays(1),
+                        before, Long.MAX_VALUE, Limit.of(51)));
+
+        assertThat(regressions).isEmpty();
+    }
+
+    // ─── Plans ───────────────────────────────────────────────────────────────────
+
+    /** Runs the repository call, then EXPLAINs every statement it sent with the same bind values. */
+    private void plan(String name, StatementRecorder.Call repositoryCall) throws Exception {
+        List<QueryInfo> queries = recorder.record(repositoryCall);
+        assertThat(queries).as(name + " sent no SQL").isNotEmpty();
+
+        try (Connection connection = StatementRecorder.unwrap(dataSource).getConnection()) {
+            for (QueryInfo query : queries) {
+                String plan = explain(connection, query);
+                Matcher matcher = SEQ_SCAN.matcher(plan);
+                while (matcher.find()) {
+                    if (LARGE_TABLES.contains(matcher.group(1))) {
+                        regressions.add(name + " scans " + matcher.group(1) + ":\n" + plan);
+                    }
+                }
+            }
+        }
+    }
+
+    private static String explain(Connection connection, QueryInfo query) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query.getQuery())) {
+            if (!query.getParametersList().isEmpty()) {
+                for (ParameterSetOperation operation : query.getParametersList().get(0)) {
+                    operation.getMethod().invoke(statement, operation.getArgs());
+                }
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    plan.append(rows.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    // ─── Data ────────────────────────────────────────────────────────────────────
+
+    /**
+     * 100 lots of 10 levels, 200k spots (every other one occupied, a few held), 200k cars, 200k payments of
+     * each kind spread over five months, 200k inspections and 200k settlement tasks of which 1k are pending.
+     */
+    private void seed() {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("INSERT INTO parking_lots (id, name) SELECT g, 'Lot ' || g FROM generate_series(1, 100) g");
+        jdbc.execute("INSERT INTO levels (id, level_number, total_spots, available_spots, is_small_car_level, parking_lot_id) " +
+                     "SELECT g, (g - 1) % 10 + 1, 200, 100, g % 2 = 0, (g - 1) / 10 + 1 FROM generate_series(1, 1000) g");
+        jdbc.execute("INSERT INTO parking_spots (id, spot_number, is_small_car_spot, is_occupied, level_id) " +
+                     "SELECT g, (g - 1) % 200 + 1, ((g - 1) / 200) % 2 = 1, g % 2 = 0, (g - 1) / 200 + 1 " +
+                     "FROM generate_series(1, 200000) g");
+        jdbc.execute("UPDATE parking_spots SET reservation_token = 'hold-' || id, " +
+                     "reserved_until = now() + INTERVAL '5 minutes' WHERE id % 10000 = 1");
+        jdbc.execute("INSERT INTO cars (id, car_type, make, model, license_plate, hourly_rate, is_parked, " +
+                     "parked_since, parking_spot_id) " +
+                     "SELECT g, CASE WHEN g % 2 = 0 THEN 'SMALL' ELSE 'LARGE' END, 'Make', 'Model', 'CAR-' || g, 5, " +
+                     "g <= 100000, CASE WHEN g <= 100000 THEN now() END, CASE WHEN g <= 100000 THEN g * 2 END " +
+                     "FROM generate_series(1, 200000) g");
+        jdbc.execute("INSERT INTO admins (id, username, password, full_name, role, created_at) " +
+                     "SELECT g, 'admin' || g, 'x', 'Admin ' || g, 'ADMIN', now() FROM generate_series(1, 5) g");
+        jdbc.execute("INSERT INTO card_payments (id, car_id, amount, card_number, transaction_id, successful, " +
+                     "payment_timestamp) " +
+                     "SELECT g, g, 10, '4242', 'TXN' || g, true, TIMESTAMP '2026-01-01' + g * INTERVAL '1 minute' " +
+                     "FROM generate_series(1, 200000) g");
+        jdbc.execute("INSERT INTO cash_payments (id, car_id, amount, cash_received, change_given, successful, " +
+                     "payment_timestamp) " +
+                     "SELECT g, g, 10, 20, 10, true, TIMESTAMP '2026-01-01' + g * INTERVAL '1 minute' " +
+                     "FROM generate_series(1, 200000) g");
+        jdbc.execute("INSERT INTO inspection_records (id, parking_lot_id, admin_id, inspection_time, total_spots, " +
+                     "occupied_spots, available_spots, status) " +
+                     "SELECT g, g % 100 + 1, g % 5 + 1, TIMESTAMP '2026-01-01' + g * INTERVAL '1 minute', 2000, 1000, " +
+                     "1000, (ARRAY['PASSED', 'FAILED', 'NEEDS_MAINTENANCE'])[g % 3 + 1] " +
+                     "FROM generate_series(1, 200000) g");
+        // Pending tasks are due only in a year, so the application's own settlement pollers leave them alone
+        jdbc.execute("INSERT INTO settlement_tasks (id, payment_method, payment_id, status, attempts, " +
+                     "next_attempt_at, created_at) " +
+                     "SELECT g, 'CARD', g, CASE WHEN g > 199000 THEN 'PENDING' ELSE 'DONE' END, 1, " +
+                     "now() + INTERVAL '1 year', now() FROM generate_series(1, 200000) g");
+        jdbc.execute("ANALYZE");
+    }
+}
@@ -0,0 +1,127 @@
+package com.parking.service;
+
+import com.parking.TestPostgres;
+import com.parking.repository.CarRepository;
+import com.parking.repository.ParkingLotRepository;
+import com.parking.web.dto.BatchItemResult;
+import com.parking.web.dto.ParkRequest;
+import com.parking.web.dto.ProvisionLotRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * parkBatch on PostgreSQL, where its set-based claim (UPDATE … RETURNING) actually runs: each lot has one
+ * level of small spots, and the rows, the cars and the in-memory index have to agree once a burst is parked.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "parking.seed.enabled=false",
+                "parking.inspection.auto.cron=-"
+        })
+@DirtiesContext
+class ParkBatchTest {
+
+    private static final int SPOTS = 4;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        TestPostgres.register(registry, "park_batch");
+    }
+
+    @Autowired private IParkService parkService;
+    @Autowired private LotProvisioningService lotProvisioningService;
+    @Autowired private ParkingLotRepository parkingLotRepository;
+    @Autowired private CarRepository carRepository;
+    @Autowired private FreeSpotIndex freeSpotIndex;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Long lotId;
+
+    @BeforeEach
+    void provisionLot() {
+        ProvisionLotRequest request = new ProvisionLotRequest();
+        request.setName("Batch " + System.nanoTime());
+        request.setLevels(List.of(new ProvisionLotRequest.LevelSpec(1, true, SPOTS)));
+        lotProvisioningService.provision(request);
+        lotId = parkingLotRepository.findByName(request.getName()).orElseThrow().getId();
+    }
+
+    @Test
+    void parksEveryCarThatFitsAndRejectsTheRest() {
+        List<ParkRequest> burst = new ArrayList<>(requests("FIT", SPOTS + 1));
+        burst.add(request("FIT-0")); // repeated within the burst
+
+        List<BatchItemResult> results = parkService.parkBatch(burst);
+
+        assertThat(results).hasSize(SPOTS + 2);
+        List<BatchItemResult> parked = results.stream().filter(BatchItemResult::isSuccess).toList();
+        assertThat(parked).hasSize(SPOTS);
+        assertThat(parked.stream().map(result -> result.getSpot().getSpotId()).distinct()).hasSize(SPOTS);
+        assertThat(results.get(SPOTS).getMessage()).startsWith("No available spot");
+        assertThat(results.get(SPOTS + 1).getMessage()).startsWith("Car is already parked");
+
+        assertThat(occupiedSpots()).isEqualTo(spotIds(parked));
+        for (BatchItemResult result : parked) {
+            assertThat(carRepository.findWithSpotByLicensePlate(result.getLicensePlate()).orElseThrow()
+                    .getParkingSpot().getId()).isEqualTo(result.getSpot().getSpotId());
+        }
+        assertThat(freeSpotIndex.claim(lotId, true)).isEmpty();
+    }
+
+    @Test
+    void retriesSpotsTakenBehindTheIndex() {
+        // Occupied outside the services: the index still offers these, and the set-based claim loses them
+        jdbcTemplate.update("UPDATE parking_spots SET is_occupied = true WHERE id IN " +
+                            "(SELECT ps.id FROM parking_spots ps JOIN levels l ON l.id = ps.level_id " +
+                            "WHERE l.parking_lot_id = ? AND ps.spot_number <= 2)", lotId);
+
+        List<BatchItemResult> results = parkService.parkBatch(requests("LATE", 2));
+
+        assertThat(results).allMatch(BatchItemResult::isSuccess);
+        assertThat(results).extracting(result -> result.getSpot().getSpotNumber())
+                .containsExactlyInAnyOrder(3, 4);
+        assertThat(occupiedSpots()).hasSize(SPOTS);
+    }
+
+    // ─── Private Helpers ─────────────────────────────────────────────────────────
+
+    private List<ParkRequest> requests(String prefix, int count) {
+        return IntStream.range(0, count).mapToObj(i -> request(prefix + "-" + i)).toList();
+    }
+
+    private ParkRequest request(String licensePlate) {
+        ParkRequest request = new ParkRequest();
+        request.setLicensePlate(licensePlate + "-" + lotId);
+        request.setMake("Make");
+        request.setModel("Model");
+        request.setCarType(ParkRequest.CarType.SMALL);
+        request.setParkingLotId(lotId);
+        return request;
+    }
+
+    private Set<Long> occupiedSpots() {
+        return Set.copyOf(jdbcTemplate.queryForList(
+                "SELECT ps.id FROM parking_spots ps JOIN levels l ON l.id = ps.level_id " +
+                "WHERE l.parking_lot_id = ? AND ps.is_occupied", Long.class, lotId));
+    }
+
+    private static Set<Long> spotIds(List<BatchItemResult> results) {
+        return results.stream().map(result -> result.getSpot().getSpotId()).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,212 @@
+package com.parking.web;
+
+import com.jayway.jsonpath.JsonPath;
+import com.parking.StatementRecorder;
+import com.parking.entity.*;
+import com.parking.repository.*;
+import com.parking.service.LotProvisioningService;
+import com.parking.web.dto.ProvisionLotRequest;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Every inspection and payment read endpoint answers with exactly one SQL statement, however many rows it
+ * returns. Each listing below spans several cars, lots or inspectors, so a lazy association that gets
+ * touched while building the response (an N+1) shows up as extra statements.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:read-endpoints;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "parking.seed.enabled=false",
+        "parking.inspection.auto.cron=-"
+})
+@AutoConfigureMockMvc
+@Import(StatementRecorder.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReadEndpointStatementCountTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 1, 8, 0);
+    private static final String RANGE = "?start=2026-03-01T00:00:00&end=2026-03-02T00:00:00";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private StatementRecorder recorder;
+    @Autowired private LotProvisioningService lotProvisioningService;
+    @Autowired private ParkingLotRepository parkingLotRepository;
+    @Autowired private AdminRepository adminRepository;
+    @Autowired private InspectionRecordRepository inspectionRecordRepository;
+    @Autowired private CarRepository carRepository;
+    @Autowired private CardPaymentRepository cardPaymentRepository;
+    @Autowired private CashPaymentRepository cashPaymentRepository;
+
+    private Long lotId;
+    private Long adminId;
+    private Long inspectionId;
+    private Long carId;
+    private Long cardPaymentId;
+    private Long cashPaymentId;
+
+    @BeforeAll
+    void seed() {
+        List<ParkingLot> lots = new ArrayList<>();
+        for (String name : List.of("North", "South")) {
+            ProvisionLotRequest request = new ProvisionLotRequest();
+            request.setName(name);
+            request.setLevels(List.of(new ProvisionLotRequest.LevelSpec(1, true, 4)));
+            lotProvisioningService.provision(request);
+            lots.add(parkingLotRepository.findByName(name).orElseThrow());
+        }
+        lotId = lots.get(0).getId();
+
+        List<Admin> admins = new ArrayList<>();
+        for (String username : List.of("alice", "bob", "carol")) {
+            Admin admin = new Admin();
+            admin.setUsername(username);
+            admin.setPassword("secret");
+            admin.setFullName(username);
+            admins.add(adminRepository.save(admin));
+        }
+        adminId = admins.get(0).getId();
+
+        // Each lot gets inspections from every admin; each admin inspects both lots
+        InspectionRecord.InspectionStatus[] statuses = InspectionRecord.InspectionStatus.values();
+        for (int i = 0; i < 12; i++) {
+            InspectionRecord record = new InspectionRecord();
+            record.setParkingLot(lots.get(i % 2));
+            record.setInspector(admins.get(i % 3));
+            record.setInspectionTime(START.plusMinutes(10L * i));
+            record.setTotalSpots(4);
+            record.setOccupiedSpots(i % 4);
+            record.setAvailableSpots(4 - i % 4);
+            record.setStatus(statuses[i % statuses.length]);
+            inspectionId = inspectionRecordRepository.save(record).getId();
+        }
+
+        // Three cars with two card and two cash payments each
+        for (int c = 0; c < 3; c++) {
+            Car car = carRepository.save(new SmallCar("Make", "Model", "READ-" + c, 5));
+            carId = car.getId();
+            for (int p = 0; p < 2; p++) {
+                LocalDateTime paidAt = START.plusHours(c).plusMinutes(p);
+                CardPayment card = new CardPayment();
+                card.setCar(car);
+                card.setAmount(10);
+                card.setCardNumber("4242");
+                card.setTransactionId("TXN-" + c + "-" + p);
+                card.setSuccessful(true);
+                card.setPaymentTimestamp(paidAt);
+                cardPaymentId = cardPaymentRepository.save(card).getId();
+
+                CashPayment cash = new CashPayment();
+                cash.setCar(car);
+                cash.setAmount(10);
+                cash.setCashReceived(20);
+                cash.setChangeGiven(10);
+                cash.setSuccessful(true);
+                cash.setPaymentTimestamp(paidAt);
+                cashPaymentId = cashPaymentRepository.save(cash).getId();
+            }
+        }
+    }
+
+    // ─── Inspections ─────────────────────────────────────────────────────────────
+
+    @Test
+    void inspectionById() throws Exception {
+        assertOneStatement("/api/inspections/" + inspectionId);
+    }
+
+    @Test
+    void inspectionPagesByLot() throws Exception {
+        MvcResult first = assertOneStatement("/api/inspections/lot/" + lotId + "?limit=4", "$.items", 4);
+        String cursor = JsonPath.read(first.getResponse().getContentAsString(), "$.nextCursor");
+        assertOneStatement("/api/inspections/lot/" + lotId + "?limit=4&cursor=" + cursor, "$.items", 2);
+    }
+
+    @Test
+    void latestInspectionsByLot() throws Exception {
+        assertOneStatement("/api/inspections/lot/" + lotId + "/latest?limit=5", "$", 5);
+    }
+
+    @Test
+    void inspectionPageByStatus() throws Exception {
+        assertOneStatement("/api/inspections/status/PASSED", "$.items", 4);
+    }
+
+    @Test
+    void inspectionPageByDateRange() throws Exception {
+        assertOneStatement("/api/inspections/range" + RANGE, "$.items", 12);
+    }
+
+    @Test
+    void inspectionsByAdmin() throws Exception {
+        assertOneStatement("/api/admin/inspections/by-admin/" + adminId, "$", 4);
+    }
+
+    // ─── Payments ────────────────────────────────────────────────────────────────
+
+    @Test
+    void cardPaymentLookups() throws Exception {
+        assertOneStatement("/api/payments/card/" + cardPaymentId);
+        assertOneStatement("/api/payments/card/transaction/TXN-0-1");
+    }
+
+    @Test
+    void cardPaymentListings() throws Exception {
+        assertOneStatement("/api/payments/card/car/" + carId, "$", 2);
+        assertOneStatement("/api/payments/card/range" + RANGE, "$", 6);
+    }
+
+    @Test
+    void cashPaymentLookup() throws Exception {
+        assertOneStatement("/api/payments/cash/" + cashPaymentId);
+    }
+
+    @Test
+    void cashPaymentListings() throws Exception {
+        assertOneStatement("/api/payments/cash/car/" + carId, "$", 2);
+        assertOneStatement("/api/payments/cash/range" + RANGE, "$", 6);
+    }
+
+    // ─── Private Helpers ─────────────────────────────────────────────────────────
+
+    private MvcResult assertOneStatement(String url) throws Exception {
+        return assertOneStatement(url, null, 0);
+    }
+
+    private MvcResult assertOneStatement(String url, String listPath, int expectedSize) throws Exception {
+        MvcResult[] result = new MvcResult[1];
+        List<QueryInfo> statements = recorder.record(() -> result[0] = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn());
+        if (listPath != null) {
+            jsonPath(listPath, hasSize(expectedSize)).match(result[0]);
+        }
+        assertThat(statements)
+                .as("GET %s sent:%n%s", url, statements.stream().map(QueryInfo::getQuery)
+                        .collect(Collectors.joining(System.lineSeparator())))
+                .hasSize(1);
+        return result[0];
+    }
+}
@@ -0,0 +1,86 @@
+# ─── ParkSmart Local Cluster ──────────────────────────────────────────────────
+# Runs several backend instances against the same database, each serving its share of the lots.
+# Usage:  .\start-cluster.ps1 [-Nodes 3]
+# Stop :  Ctrl+C  (kills every node)
+# Node i listens on 8082+i; requests for a lot owned by another node are answered with a 307 to it.
+# ─────────────────────────────────────────────────────────────────────────────
+
+param([int]$Nodes = 3)
+
+$ROOT = $PSScriptRoot
+
+# ── Tool paths ────────────────────────────────────────────────────────────────
+$JAVA_HOME = "C:\Program Files\Microsoft\jdk-21.0.10.7-hotspot"
+$M2_HOME   = "C:\maven\apache-maven-3.9.6"
+$MVN       = "$M2_HOME\bin\mvn.cmd"
+$JAVA      = "$JAVA_HOME\bin\java.exe"
+
+# ── Load .env into a hashtable ────────────────────────────────────────────────
+$envVars = @{}
+$envFile  = Join-Path $ROOT ".env"
+if (Test-Path $envFile) {
+    Get-Content $envFile | ForEach-Object {
+        if ($_ -match '^\s*([^#=][^=]*)=(.*)$') {
+            $envVars[$matches[1].Trim()] = $matches[2].Trim()
+        }
+    }
+    Write-Host "[cluster] Loaded .env ($($envVars.Count) vars)" -ForegroundColor Cyan
+} else {
+    Write-Host "[cluster] WARNING: .env not found — database config may be missing" -ForegroundColor Yellow
+}
+
+$envBlock = ($envVars.GetEnumerator() | ForEach-Object {
+    "`$env:$($_.Key) = '$($_.Value)'"
+}) -join "; "
+
+# ── Build once ────────────────────────────────────────────────────────────────
+Write-Host "[cluster] Building backend jar..." -ForegroundColor Green
+$env:JAVA_HOME = $JAVA_HOME
+& $MVN -q -f (Join-Path $ROOT "pom.xml") package -DskipTests
+if ($LASTEXITCODE -ne 0) {
+    Write-Host "[cluster] Build failed." -ForegroundColor Red
+    exit 1
+}
+$jar = Join-Path $ROOT "target\parking-lot-design-1.0.0-exec.jar"
+
+# ── Nodes ─────────────────────────────────────────────────────────────────────
+$clusterNodes = (0..($Nodes - 1) | ForEach-Object { "$_=http://localhost:$(8082 + $_)" }) -join ","
+
+$procs = @()
+for ($i = 0; $i -lt $Nodes; $i++) {
+    $port = 8082 + $i
+    # Only node 0 seeds, so the others do not race it on an empty database
+    $seed = if ($i -eq 0) { 'true' } else { 'false' }
+    Write-Host "[cluster] Starting node $i on port $port..." -ForegroundColor Green
+
+    $nodeCmd = "
+        $envBlock;
+        `$env:SERVER_PORT   = '$port';
+        `$env:NODE_ID       = '$i';
+        `$env:CLUSTER_NODES = '$clusterNodes';
+        `$env:SEED_ENABLED  = '$seed';
+        Set-Location '$ROOT';
+        & '$JAVA' -jar '$jar'
+    "
+    $procs += Start-Process powershell.exe `
+        -ArgumentList "-NoExit", "-Command", $nodeCmd `
+        -PassThru
+}
+
+# ── Info ──────────────────────────────────────────────────────────────────────
+Write-Host ""
+for ($i = 0; $i -lt $Nodes; $i++) {
+    Write-Host "  Node $i -> http://localhost:$(8082 + $i)" -ForegroundColor Yellow
+}
+Write-Host ""
+Write-Host "[cluster] $Nodes node(s) running. Close their windows or Ctrl+C here to stop all." -ForegroundColor Cyan
+
+try {
+    Wait-Process -Id ($procs | ForEach-Object { $_.Id })
+} finally {
+    Write-Host "`n[cluster] Stopping all nodes..." -ForegroundColor Red
+    foreach ($p in $procs) {
+        if (!$p.HasExited) { Stop-Process -Id $p.Id -Force -ErrorAction SilentlyContinue }
+    }
+    Write-Host "[cluster] Done." -ForegroundColor Red
+}